@@ -0,0 +1,36 @@
+package benchmark;
+
+import chess.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BenchmarkPositions {
+    public static final String OPENING = "opening";
+    public static final String MIDDLEGAME = "middlegame";
+    public static final String ENDGAME = "endgame";
+
+    private BenchmarkPositions() {}
+
+    public static ChessGame load(String name) {
+        return ChessGame.fromFen(switch (name) {
+            case OPENING -> "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w";
+            case MIDDLEGAME -> "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w";
+            case ENDGAME -> "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w";
+            default -> throw new IllegalArgumentException("Unknown benchmark position: " + name);
+        });
+    }
+
+    public static List<ChessPosition> piecePositions(ChessBoard board, ChessGame.TeamColor color) {
+        List<ChessPosition> positions = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                if (piece != null && piece.getTeamColor() == color) {
+                    positions.add(new ChessPosition(row, col));
+                }
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessBoardBenchmark {
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    private String position;
+
+    private ChessBoard board;
+    private ChessMove move;
+    private ChessMove reverse;
+
+    @Setup
+    public void setUp() {
+        ChessGame game = BenchmarkPositions.load(position);
+        board = game.getBoard();
+
+        // A quiet piece move can be played back and forth without changing the position
+        for (ChessPosition start : BenchmarkPositions.piecePositions(board, game.getTeamTurn())) {
+            if (board.getPiece(start).getPieceType() == ChessPiece.PieceType.PAWN) {
+                continue;
+            }
+            for (ChessMove candidate : game.validMoves(start)) {
+                if (board.getPiece(candidate.getEndPosition()) == null) {
+                    move = candidate;
+                    reverse = new ChessMove(candidate.getEndPosition(), candidate.getStartPosition(), null);
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("No reversible move in " + position);
+    }
+
+    @Benchmark
+    public ChessBoard movePiece() {
+        board.movePiece(move);
+        board.movePiece(reverse);
+        return board;
+    }
+
+    @Benchmark
+    public ChessBoard makeUnmakeMove() {
+        int undo = board.makeMove(move);
+        board.unmakeMove(move, undo);
+        return board;
+    }
+}
@@ -0,0 +1,81 @@
+package benchmark;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    private String position;
+
+    private ChessGame game;
+    private List<ChessPosition> sideToMovePieces;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkPositions.load(position);
+        sideToMovePieces = BenchmarkPositions.piecePositions(game.getBoard(), game.getTeamTurn());
+        // Store the position for the cached variants; the others clear it first
+        game.validMoves(sideToMovePieces.get(0));
+    }
+
+    /**
+     * Empties the shared legal move cache before every call, so a benchmark
+     * taking it measures move generation rather than cache hits
+     */
+    @State(Scope.Thread)
+    public static class ColdCache {
+        @Setup(Level.Invocation)
+        public void clear() {
+            LegalMoveCache.shared().clear();
+        }
+    }
+
+    @Benchmark
+    public void validMovesAllPieces(ColdCache coldCache, Blackhole blackhole) {
+        for (ChessPosition piecePosition : sideToMovePieces) {
+            blackhole.consume(game.validMoves(piecePosition));
+        }
+    }
+
+    @Benchmark
+    public void validMovesAllPiecesCached(Blackhole blackhole) {
+        for (ChessPosition piecePosition : sideToMovePieces) {
+            blackhole.consume(game.validMoves(piecePosition));
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate(ColdCache coldCache) {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate(ColdCache coldCache) {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public ChessGame.GameStatus evaluateStatus(ColdCache coldCache) {
+        return game.evaluateStatus();
+    }
+
+    @Benchmark
+    public ChessGame.GameStatus evaluateStatusCached() {
+        return game.evaluateStatus();
+    }
+}
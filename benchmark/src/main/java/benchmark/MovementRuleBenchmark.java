@@ -0,0 +1,58 @@
+package benchmark;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementRuleBenchmark {
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    private String position;
+
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    private ChessPiece.PieceType pieceType;
+
+    private ChessBoard board;
+    private MovementRule rule;
+    private List<ChessPosition> pieces;
+    private final MoveList moveList = new MoveList();
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.load(position).getBoard();
+        rule = Rules.pieceRule(pieceType);
+        pieces = new ArrayList<>();
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPosition piecePosition : BenchmarkPositions.piecePositions(board, color)) {
+                if (board.getPiece(piecePosition).getPieceType() == pieceType) {
+                    pieces.add(piecePosition);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void moves(Blackhole blackhole) {
+        for (ChessPosition piecePosition : pieces) {
+            blackhole.consume(rule.moves(board, piecePosition));
+        }
+    }
+
+    @Benchmark
+    public int addMoves() {
+        moveList.clear();
+        for (ChessPosition piecePosition : pieces) {
+            rule.addMoves(board, Bitboards.square(piecePosition), moveList);
+        }
+        return moveList.size();
+    }
+}
@@ -15,6 +15,7 @@ import websocket.messages.ErrorMessage;
 import websocket.messages.ServerMessage;
 import com.google.gson.Gson;
 import exception.ResponseException;
+import json.Serializer;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -27,7 +28,7 @@ public class ChessClient implements ServerMessageObserver {
     private String username;
     private List<GameData> currentGameList;
     private WebSocketCommunicator webSocketCommunicator;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.gson();
 
     public ChessClient(String serverURL, ChessApp chessApp) {
         this.serverFacade = new ServerFacade(serverURL);
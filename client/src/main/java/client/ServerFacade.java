@@ -3,6 +3,7 @@ package client;
 import model.*;
 import com.google.gson.Gson;
 import exception.ResponseException;
+import json.Serializer;
 
 import java.io.*;
 import java.net.*;
@@ -11,7 +12,7 @@ import java.util.stream.Collectors;
 
 public class ServerFacade {
     private final String serverURL;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.gson();
 
     public ServerFacade(String serverURL) {
         this.serverURL = serverURL;
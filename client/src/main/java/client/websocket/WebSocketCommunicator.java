@@ -6,7 +6,7 @@ import java.net.URI;
 import websocket.messages.ErrorMessage;
 import websocket.messages.ServerMessage;
 import websocket.ServerMessageObserver;
-import websocket.messages.ServerMessageDeserializer;
+import json.Serializer;
 
 public class WebSocketCommunicator extends Endpoint {
     private final ServerMessageObserver serverMessageObserver;
@@ -15,7 +15,7 @@ public class WebSocketCommunicator extends Endpoint {
 
     public WebSocketCommunicator(ServerMessageObserver serverMessageObserver) {
         this.serverMessageObserver = serverMessageObserver;
-        this.gson = new GsonBuilder().registerTypeAdapter(ServerMessage.class, new ServerMessageDeserializer()).create();
+        this.gson = Serializer.gson();
     }
 
     public void connect(String wsURL) throws Exception {
@@ -1,16 +1,31 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessGameCodec;
 import model.GameData;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import com.google.gson.Gson;
+import json.Serializer;
 
 import java.util.List;
 import java.util.ArrayList;
 
 public class MySQLGameDAO implements GameDAO {
+    private final boolean binaryGames;
+
+    public MySQLGameDAO() {
+        this(false);
+    }
+
+    /**
+     * @param binaryGames write games as Base64 {@link ChessGameCodec} text instead of
+     *                    JSON; games stored in either form can always be read
+     */
+    public MySQLGameDAO(boolean binaryGames) {
+        this.binaryGames = binaryGames;
+    }
+
     @Override
     public int createGame(GameData gameData) throws DataAccessException {
         var statement = "INSERT INTO game (whiteUsername, blackUsername, gameName, chessGame) VALUES (?, ?, ?, ?)";
@@ -20,7 +35,7 @@ public class MySQLGameDAO implements GameDAO {
             preparedStatement.setString(1, gameData.whiteUsername());
             preparedStatement.setString(2, gameData.blackUsername());
             preparedStatement.setString(3, gameData.gameName());
-            preparedStatement.setString(4, new Gson().toJson(gameData.chessGame()));
+            preparedStatement.setString(4, serializeGame(gameData.chessGame()));
 
             preparedStatement.executeUpdate();
 
@@ -48,7 +63,7 @@ public class MySQLGameDAO implements GameDAO {
 
             try (var rs = preparedStatement.executeQuery()) {
                 if (rs.next()) {
-                    ChessGame chessGame = new Gson().fromJson(rs.getString("chessGame"), ChessGame.class);
+                    ChessGame chessGame = deserializeGame(rs.getString("chessGame"));
 
                     return new GameData(rs.getInt("gameID"),
                                         rs.getString("whiteUsername"),
@@ -74,7 +89,7 @@ public class MySQLGameDAO implements GameDAO {
              var preparedStatement = conn.prepareStatement(statement);
              var rs = preparedStatement.executeQuery()) {
             while (rs.next()) {
-                ChessGame chessGame = new Gson().fromJson(rs.getString("chessGame"), ChessGame.class);
+                ChessGame chessGame = deserializeGame(rs.getString("chessGame"));
 
                 GameData gameData = new GameData(rs.getInt("gameID"),
                                                  rs.getString("whiteUsername"),
@@ -100,7 +115,7 @@ public class MySQLGameDAO implements GameDAO {
             preparedStatement.setString(1, gameData.whiteUsername());
             preparedStatement.setString(2, gameData.blackUsername());
             preparedStatement.setString(3, gameData.gameName());
-            preparedStatement.setString(4, new Gson().toJson(gameData.chessGame()));
+            preparedStatement.setString(4, serializeGame(gameData.chessGame()));
             preparedStatement.setInt(5, gameData.gameID());
 
             int affectedRows = preparedStatement.executeUpdate();
@@ -124,4 +139,20 @@ public class MySQLGameDAO implements GameDAO {
             throw new DataAccessException("Error clearing game table" + ex.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private String serializeGame(ChessGame chessGame) {
+        return binaryGames ? ChessGameCodec.toBase64(chessGame) : Serializer.gson().toJson(chessGame);
+    }
+
+    private ChessGame deserializeGame(String storedGame) throws DataAccessException {
+        // JSON games start with '{', which never appears in Base64
+        if (storedGame == null || storedGame.startsWith("{")) {
+            return Serializer.gson().fromJson(storedGame, ChessGame.class);
+        }
+        try {
+            return ChessGameCodec.fromBase64(storedGame);
+        } catch (IllegalArgumentException ex) {
+            throw new DataAccessException("Error decoding stored game: " + ex.getMessage());
+        }
+    }
+}
@@ -5,6 +5,7 @@ import dataaccess.*;
 import model.*;
 import server.websocket.WebSocketHandler;
 import exception.ResponseException;
+import json.Serializer;
 
 import spark.*;
 import com.google.gson.Gson;
@@ -23,7 +24,7 @@ public class Server {
     private final CreateGameService createGameService;
     private final JoinGameService joinGameService;
     private final WebSocketHandler webSocketHandler;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.gson();
 
     public Server() {
         try {
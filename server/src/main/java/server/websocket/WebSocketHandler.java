@@ -7,6 +7,7 @@ import chess.InvalidMoveException;
 import dataaccess.AuthDAO;
 import dataaccess.GameDAO;
 import dataaccess.DataAccessException;
+import json.Serializer;
 import model.AuthData;
 import model.GameData;
 import org.eclipse.jetty.websocket.api.Session;
@@ -26,11 +27,20 @@ public class WebSocketHandler {
     private final ConnectionManager connections = new ConnectionManager();
     private final AuthDAO authDAO;
     private final GameDAO gameDAO;
-    private final Gson gson = new Gson();
+    private final boolean binaryGames;
+    private final Gson gson = Serializer.gson();
 
     public WebSocketHandler(AuthDAO authDAO, GameDAO gameDAO) {
+        this(authDAO, gameDAO, false);
+    }
+
+    /**
+     * @param binaryGames send games in LOAD_GAME messages in their compact binary form
+     */
+    public WebSocketHandler(AuthDAO authDAO, GameDAO gameDAO, boolean binaryGames) {
         this.authDAO = authDAO;
         this.gameDAO = gameDAO;
+        this.binaryGames = binaryGames;
     }
 
     @OnWebSocketMessage
@@ -62,7 +72,7 @@ public class WebSocketHandler {
 
             connections.add(connectCommand.getGameID(), username, session);
 
-            LoadGameMessage loadGameMessage = new LoadGameMessage(gameData, role);
+            LoadGameMessage loadGameMessage = new LoadGameMessage(gameData, role, binaryGames);
             connections.getConnection(connectCommand.getGameID(), username).send(gson.toJson(loadGameMessage));
 
             NotificationMessage connectNotification = new NotificationMessage(username + " joined as " + role);
@@ -106,6 +116,12 @@ public class WebSocketHandler {
                 return;
             }
 
+            // Decide whether the move ended the game before saving it, so a finished game is stored as over
+            ChessGame.GameStatus status = chessGame.evaluateStatus();
+            if (status != ChessGame.GameStatus.NORMAL && status != ChessGame.GameStatus.CHECK) {
+                chessGame.setGameOver(true);
+            }
+
             try {
                 gameDAO.updateGame(
                         new GameData(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(), gameData.gameName(), chessGame)
@@ -115,7 +131,7 @@ public class WebSocketHandler {
                 return;
             }
 
-            LoadGameMessage loadGameMessage = new LoadGameMessage(gameData, role);
+            LoadGameMessage loadGameMessage = new LoadGameMessage(gameData, role, binaryGames);
             connections.getConnection(makeMoveCommand.getGameID(), username).send(gson.toJson(loadGameMessage));
             connections.broadcast(makeMoveCommand.getGameID(), username, gson.toJson(loadGameMessage));
 
@@ -126,23 +142,35 @@ public class WebSocketHandler {
             connections.broadcast(makeMoveCommand.getGameID(), username, gson.toJson(makeMoveNotification));
 
             String opponent = chessGame.getTeamTurn() == ChessGame.TeamColor.WHITE ? gameData.whiteUsername() : gameData.blackUsername();
-            if (chessGame.isInCheckmate(chessGame.getTeamTurn())) {
-                chessGame.setGameOver(true);
-                String checkmateMessage = String.format("%s is in checkmate! The game is over.", opponent);
-                NotificationMessage checkmateNotification = new NotificationMessage(checkmateMessage);
-                connections.getConnection(makeMoveCommand.getGameID(), username).send(gson.toJson(checkmateNotification));
-                connections.broadcast(makeMoveCommand.getGameID(), username, gson.toJson(checkmateNotification));
-            } else if (chessGame.isInCheck(chessGame.getTeamTurn())) {
-                String checkMessage = String.format("%s is in check!", opponent);
-                NotificationMessage checkNotification = new NotificationMessage(checkMessage);
-                connections.getConnection(makeMoveCommand.getGameID(), username).send(gson.toJson(checkNotification));
-                connections.broadcast(makeMoveCommand.getGameID(), username, gson.toJson(checkNotification));
-            } else if (chessGame.isInStalemate(chessGame.getTeamTurn())) {
-                chessGame.setGameOver(true);
-                String stalemateMessage = "The game is in stalemate!";
-                NotificationMessage stalemateNotification = new NotificationMessage(stalemateMessage);
-                connections.getConnection(makeMoveCommand.getGameID(), username).send(gson.toJson(stalemateNotification));
-                connections.broadcast(makeMoveCommand.getGameID(), username, gson.toJson(stalemateNotification));
+            switch (status) {
+                case CHECKMATE -> {
+                    String checkmateMessage = String.format("%s is in checkmate! The game is over.", opponent);
+                    NotificationMessage checkmateNotification = new NotificationMessage(checkmateMessage);
+                    connections.getConnection(makeMoveCommand.getGameID(), username).send(gson.toJson(checkmateNotification));
+                    connections.broadcast(makeMoveCommand.getGameID(), username, gson.toJson(checkmateNotification));
+                }
+                case CHECK -> {
+                    String checkMessage = String.format("%s is in check!", opponent);
+                    NotificationMessage checkNotification = new NotificationMessage(checkMessage);
+                    connections.getConnection(makeMoveCommand.getGameID(), username).send(gson.toJson(checkNotification));
+                    connections.broadcast(makeMoveCommand.getGameID(), username, gson.toJson(checkNotification));
+                }
+                case STALEMATE -> {
+                    String stalemateMessage = "The game is in stalemate!";
+                    NotificationMessage stalemateNotification = new NotificationMessage(stalemateMessage);
+                    connections.getConnection(makeMoveCommand.getGameID(), username).send(gson.toJson(stalemateNotification));
+                    connections.broadcast(makeMoveCommand.getGameID(), username, gson.toJson(stalemateNotification));
+                }
+                case THREEFOLD_REPETITION, FIFTY_MOVE_RULE, INSUFFICIENT_MATERIAL -> {
+                    String drawMessage = switch (status) {
+                        case THREEFOLD_REPETITION -> "The game is drawn by threefold repetition!";
+                        case FIFTY_MOVE_RULE -> "The game is drawn by the fifty-move rule!";
+                        default -> "The game is drawn by insufficient material!";
+                    };
+                    NotificationMessage drawNotification = new NotificationMessage(drawMessage);
+                    connections.getConnection(makeMoveCommand.getGameID(), username).send(gson.toJson(drawNotification));
+                    connections.broadcast(makeMoveCommand.getGameID(), username, gson.toJson(drawNotification));
+                }
             }
         } catch (Exception ex) {
             sendError(session, "Error processing MAKE_MOVE command: " + ex.getMessage());
@@ -0,0 +1,166 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import dataaccess.DataAccessException;
+import dataaccess.GameDAO;
+import dataaccess.MemoryAuthDAO;
+import json.Serializer;
+import model.AuthData;
+import model.GameData;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.junit.jupiter.api.*;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketHandlerTest {
+    private static final int GAME_ID = 1;
+    private static final String WHITE_TOKEN = "whiteToken";
+    private static final String BLACK_TOKEN = "blackToken";
+
+    private final Gson gson = Serializer.gson();
+    private final List<String> whiteMessages = new ArrayList<>();
+    private final List<String> blackMessages = new ArrayList<>();
+    private Session whiteSession;
+    private Session blackSession;
+    private SerializingGameDAO gameDAO;
+    private WebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        MemoryAuthDAO authDAO = new MemoryAuthDAO();
+        authDAO.createAuth(new AuthData("white", WHITE_TOKEN));
+        authDAO.createAuth(new AuthData("black", BLACK_TOKEN));
+        gameDAO = new SerializingGameDAO();
+        handler = new WebSocketHandler(authDAO, gameDAO);
+        whiteSession = recordingSession(whiteMessages);
+        blackSession = recordingSession(blackMessages);
+    }
+
+    @Test
+    void threefoldRepetitionIsSavedAsOver() throws IOException, DataAccessException {
+        startGame(new ChessGame());
+
+        for (int i = 0; i < 2; i++) {
+            move(whiteSession, WHITE_TOKEN, 1, 7, 3, 6);
+            move(blackSession, BLACK_TOKEN, 8, 7, 6, 6);
+            move(whiteSession, WHITE_TOKEN, 3, 6, 1, 7);
+            move(blackSession, BLACK_TOKEN, 6, 6, 8, 7);
+        }
+
+        assertTrue(blackMessages.stream().anyMatch(message -> message.contains("threefold repetition")));
+        assertGameClosed();
+    }
+
+    @Test
+    void fiftyMoveRuleIsSavedAsOver() throws IOException, DataAccessException {
+        startGame(ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 60"));
+
+        move(whiteSession, WHITE_TOKEN, 1, 5, 1, 4);
+
+        assertTrue(whiteMessages.stream().anyMatch(message -> message.contains("fifty-move rule")));
+        assertGameClosed();
+    }
+
+    @Test
+    void insufficientMaterialIsSavedAsOver() throws IOException, DataAccessException {
+        startGame(ChessGame.fromFen("4k3/8/8/8/8/8/3q4/4K3 w"));
+
+        move(whiteSession, WHITE_TOKEN, 1, 5, 2, 4);
+
+        assertTrue(whiteMessages.stream().anyMatch(message -> message.contains("insufficient material")));
+        assertGameClosed();
+    }
+
+    private void startGame(ChessGame game) throws IOException, DataAccessException {
+        gameDAO.createGame(new GameData(GAME_ID, "white", "black", "Test Game", game));
+        handler.onMessage(whiteSession, gson.toJson(new UserGameCommand(UserGameCommand.CommandType.CONNECT, WHITE_TOKEN, GAME_ID)));
+        handler.onMessage(blackSession, gson.toJson(new UserGameCommand(UserGameCommand.CommandType.CONNECT, BLACK_TOKEN, GAME_ID)));
+    }
+
+    private void move(Session session, String authToken, int fromRow, int fromCol, int toRow, int toCol) throws IOException {
+        ChessMove move = new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+        handler.onMessage(session, gson.toJson(new MakeMoveCommand(authToken, GAME_ID, move)));
+    }
+
+    /**
+     * Checks the saved game is over and that the server refuses further moves
+     */
+    private void assertGameClosed() throws IOException, DataAccessException {
+        assertTrue(gameDAO.getGame(GAME_ID).chessGame().isGameOver());
+
+        ChessGame.TeamColor turn = gameDAO.getGame(GAME_ID).chessGame().getTeamTurn();
+        Session session = turn == ChessGame.TeamColor.WHITE ? whiteSession : blackSession;
+        List<String> messages = turn == ChessGame.TeamColor.WHITE ? whiteMessages : blackMessages;
+        messages.clear();
+        move(session, turn == ChessGame.TeamColor.WHITE ? WHITE_TOKEN : BLACK_TOKEN, 8, 5, 7, 5);
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).contains("The game is over"));
+    }
+
+    private static Session recordingSession(List<String> messages) {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(RemoteEndpoint.class.getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString")) {
+                        messages.add((String) args[0]);
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getRemote" -> remote;
+                    case "isOpen" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    /**
+     * Keeps games as JSON like the MySQL DAO does, so changes made to a game
+     * after it was saved are not seen by later reads
+     */
+    private static class SerializingGameDAO implements GameDAO {
+        private final Gson gson = Serializer.gson();
+        private final Map<Integer, String> games = new HashMap<>();
+
+        @Override
+        public int createGame(GameData gameData) {
+            games.put(gameData.gameID(), gson.toJson(gameData));
+            return gameData.gameID();
+        }
+
+        @Override
+        public GameData getGame(int gameID) {
+            String json = games.get(gameID);
+            return json == null ? null : gson.fromJson(json, GameData.class);
+        }
+
+        @Override
+        public List<GameData> listGames() {
+            return games.values().stream().map(json -> gson.fromJson(json, GameData.class)).toList();
+        }
+
+        @Override
+        public void updateGame(GameData gameData) {
+            createGame(gameData);
+        }
+
+        @Override
+        public void clear() {
+            games.clear();
+        }
+    }
+}
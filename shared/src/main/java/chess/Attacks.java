@@ -0,0 +1,142 @@
+package chess;
+
+/**
+ * Attack masks for each piece type, expressed as bitboards over the square
+ * numbering in {@link Bitboards}.
+ */
+public final class Attacks {
+    private static final int[][] KNIGHT_STEPS = {
+            {2, 1}, {2, -1}, {-2, 1}, {-2, -1},
+            {1, 2}, {1, -2}, {-1, 2}, {-1, -2}
+    };
+    private static final int[][] KING_STEPS = {
+            {1, 0}, {-1, 0}, {0, 1}, {0, -1},
+            {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+    private static final int[][] WHITE_PAWN_STEPS = {
+            {1, 1}, {1, -1}
+    };
+    private static final int[][] BLACK_PAWN_STEPS = {
+            {-1, 1}, {-1, -1}
+    };
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[][] PAWN_PUSHES = new long[2][64];
+
+    // Squares strictly between two squares sharing a row, column or diagonal
+    private static final long[][] BETWEEN = new long[64][64];
+    // The whole row, column or diagonal through two aligned squares
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = step(square, KNIGHT_STEPS);
+            KING_ATTACKS[square] = step(square, KING_STEPS);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = step(square, WHITE_PAWN_STEPS);
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = step(square, BLACK_PAWN_STEPS);
+            PAWN_PUSHES[ChessGame.TeamColor.WHITE.ordinal()][square] = step(square, new int[][]{{1, 0}});
+            PAWN_PUSHES[ChessGame.TeamColor.BLACK.ordinal()][square] = step(square, new int[][]{{-1, 0}});
+        }
+
+        for (int from = 0; from < 64; from++) {
+            for (int[] step : KING_STEPS) {
+                long between = 0L;
+                int row = Bitboards.row(from) + step[0];
+                int col = Bitboards.column(from) + step[1];
+                while (onBoard(row, col)) {
+                    int to = Bitboards.square(row, col);
+                    BETWEEN[from][to] = between;
+                    between |= Bitboards.bit(to);
+                    row += step[0];
+                    col += step[1];
+                }
+
+                long line = slide(from, 0L, new int[][]{step, {-step[0], -step[1]}}) | Bitboards.bit(from);
+                for (long ray = slide(from, 0L, new int[][]{step}); ray != 0; ray = Bitboards.clearFirst(ray)) {
+                    LINE[from][Bitboards.firstSquare(ray)] = line;
+                }
+            }
+        }
+    }
+
+    private Attacks() {}
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return squares a pawn of the given color standing on square attacks
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * @return the square one step forward for a pawn of the given color, or an
+     * empty mask on the far row
+     */
+    public static long pawnPushes(ChessGame.TeamColor color, int square) {
+        return PAWN_PUSHES[color.ordinal()][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return Magics.rookAttacks(square, occupied);
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return Magics.bishopAttacks(square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static long step(int square, int[][] steps) {
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int row = Bitboards.row(square) + step[0];
+            int col = Bitboards.column(square) + step[1];
+            if (onBoard(row, col)) {
+                attacks |= Bitboards.bit(Bitboards.square(row, col));
+            }
+        }
+        return attacks;
+    }
+
+    private static long slide(int square, long occupied, int[][] steps) {
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int row = Bitboards.row(square) + step[0];
+            int col = Bitboards.column(square) + step[1];
+            while (onBoard(row, col)) {
+                long bit = Bitboards.bit(Bitboards.square(row, col));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += step[0];
+                col += step[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+}
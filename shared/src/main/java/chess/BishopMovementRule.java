@@ -1,19 +1,11 @@
 package chess;
 
-import java.util.Collection;
-import java.util.HashSet;
-
 public class BishopMovementRule extends BaseMovementRule {
     @Override
-    public Collection<ChessMove> moves(ChessBoard board, ChessPosition position) {
-        var validMoves = new HashSet<ChessMove>();
-
-        int[][] directions = {
-                {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-        };
-
-        calculateMoves(board, position, directions, validMoves, false);
+    public boolean forEachMove(ChessBoard board, int square, MoveSink sink) {
+        ChessPiece bishop = board.getPiece(square);
 
-        return validMoves;
+        long own = board.getPieces(bishop.getTeamColor());
+        return MoveSink.acceptTargets(sink, square, Attacks.bishopAttacks(square, board.getOccupied()) & ~own, Bitboards.EMPTY);
     }
 }
\ No newline at end of file
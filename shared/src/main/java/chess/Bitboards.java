@@ -0,0 +1,69 @@
+package chess;
+
+/**
+ * Helpers for the 64-bit square masks used by {@link ChessBoard}.
+ * <p>
+ * Squares are numbered 0-63 starting at a1 (row 1, column 1) and running
+ * along each row, so bit {@code (row - 1) * 8 + (column - 1)} stands for
+ * that position.
+ */
+public final class Bitboards {
+    public static final long EMPTY = 0L;
+    public static final long ALL = -1L;
+    public static final long ROW_1 = 0x00000000000000FFL;
+    public static final long ROW_8 = 0xFF00000000000000L;
+    public static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+    private Bitboards() {}
+
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static ChessPosition position(int square) {
+        return ChessPosition.of(row(square), column(square));
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static boolean isSet(long bitboard, int square) {
+        return (bitboard & (1L << square)) != 0;
+    }
+
+    public static int firstSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    public static long clearFirst(long bitboard) {
+        return bitboard & (bitboard - 1);
+    }
+
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+
+    /**
+     * @return the row a pawn of the given color promotes on
+     */
+    public static long promotionRow(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? ROW_8 : ROW_1;
+    }
+
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+}
@@ -1,6 +1,7 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
 
 /**
@@ -9,12 +10,29 @@ import java.util.Arrays;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
 
+    // Undo records returned by makeMove pack the piece codes (pieceIndex + 1, 0 for
+    // none) of the moved and captured pieces into an int so no object is allocated.
+    private static final int UNDO_PIECE_BITS = 4;
+    private static final int UNDO_PIECE_MASK = 0xF;
+
     private final ChessPiece[][] squares;
 
+    // Bitboard index of the pieces in squares, one mask per color and piece type.
+    // Transient so the wire format stays the squares grid; rebuilt whenever the
+    // grid was replaced behind our back (e.g. by Gson reflection).
+    private transient long[] pieceBitboards = new long[12];
+    private transient long[] colorBitboards = new long[2];
+    private transient long occupied;
+    private transient long zobristKey;
+    private transient int[] kingSquares = {-1, -1};
+    private transient ChessPiece[][] indexedSquares;
+
     public ChessBoard() {
         squares = new ChessPiece[8][8];
+        indexedSquares = squares;
     }
 
     /**
@@ -24,9 +42,8 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        int row = position.getRow() - 1;
-        int col = position.getColumn() - 1;
-        squares[row][col] = piece;
+        ensureIndexed();
+        setSquare(Bitboards.square(position), piece);
     }
 
     /**
@@ -42,42 +59,237 @@ public class ChessBoard {
         return squares[row][col];
     }
 
+    /**
+     * Gets a chess piece by its bitboard square index
+     *
+     * @param square the square, 0 for a1 through 63 for h8
+     * @return Either the piece on the square, or null if it is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return squares[square >>> 3][square & 7];
+    }
+
+    /**
+     * @return mask of every square holding a piece of the given color and type
+     */
+    public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        ensureIndexed();
+        return pieceBitboards[Bitboards.pieceIndex(color, type)];
+    }
+
+    /**
+     * @return mask of every square holding a piece of the given color
+     */
+    public long getPieces(ChessGame.TeamColor color) {
+        ensureIndexed();
+        return colorBitboards[color.ordinal()];
+    }
+
+    /**
+     * Counts the pieces of a color and type, kept up to date by the bitboard
+     * index as pieces are added and moved
+     *
+     * @return number of such pieces on the board
+     */
+    public int getPieceCount(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return Bitboards.count(getPieces(color, type));
+    }
+
+    /**
+     * @return number of pieces of the given color on the board
+     */
+    public int getPieceCount(ChessGame.TeamColor color) {
+        return Bitboards.count(getPieces(color));
+    }
+
+    /**
+     * @return mask of every occupied square
+     */
+    public long getOccupied() {
+        ensureIndexed();
+        return occupied;
+    }
+
+    /**
+     * Gets the square of a side's king, tracked as pieces are added and moved
+     *
+     * @param color the side whose king to find
+     * @return square number 0-63, or -1 if that side has no king on the board
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        ensureIndexed();
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * @return position of the side's king, or null if it has no king on the board
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = getKingSquare(color);
+        return square < 0 ? null : Bitboards.position(square);
+    }
+
+    /**
+     * Gets the Zobrist key of the piece placement, kept up to date as pieces
+     * are added and moved. It does not include the side to move; see
+     * {@link ChessGame#getPositionKey()} for that.
+     *
+     * @return 64-bit key identifying the placement of every piece
+     */
+    public long getZobristKey() {
+        ensureIndexed();
+        return zobristKey;
+    }
+
+    /**
+     * Determines if any piece of the given color attacks a square. Looks outward
+     * from the square along pawn, knight, king and sliding rays, stopping each
+     * ray at its first blocker.
+     *
+     * @param square   the square to test
+     * @param attacker color of the attacking side
+     * @return True if the square is attacked
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor attacker) {
+        ensureIndexed();
+        ChessGame.TeamColor defender = (attacker == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        int offset = attacker.ordinal() * 6;
+
+        if ((Attacks.pawnAttacks(defender, square) & pieceBitboards[offset + ChessPiece.PieceType.PAWN.ordinal()]) != 0
+                || (Attacks.knightAttacks(square) & pieceBitboards[offset + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0
+                || (Attacks.kingAttacks(square) & pieceBitboards[offset + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+
+        long queens = pieceBitboards[offset + ChessPiece.PieceType.QUEEN.ordinal()];
+        long rookLike = pieceBitboards[offset + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        long bishopLike = pieceBitboards[offset + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+
+        return (rookLike != 0 && (Attacks.rookAttacks(square, occupied) & rookLike) != 0)
+                || (bishopLike != 0 && (Attacks.bishopAttacks(square, occupied) & bishopLike) != 0);
+    }
+
+    /**
+     * Finds every piece of the given color attacking a square, treating only the
+     * squares in occupancy as blockers for sliding pieces
+     *
+     * @return mask of the attacking pieces
+     */
+    public long attackersTo(int square, ChessGame.TeamColor attacker, long occupancy) {
+        ensureIndexed();
+        ChessGame.TeamColor defender = (attacker == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        int offset = attacker.ordinal() * 6;
+
+        long queens = pieceBitboards[offset + ChessPiece.PieceType.QUEEN.ordinal()];
+        long rookLike = pieceBitboards[offset + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        long bishopLike = pieceBitboards[offset + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+
+        return (Attacks.pawnAttacks(defender, square) & pieceBitboards[offset + ChessPiece.PieceType.PAWN.ordinal()])
+                | (Attacks.knightAttacks(square) & pieceBitboards[offset + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Attacks.kingAttacks(square) & pieceBitboards[offset + ChessPiece.PieceType.KING.ordinal()])
+                | (Attacks.rookAttacks(square, occupancy) & rookLike)
+                | (Attacks.bishopAttacks(square, occupancy) & bishopLike);
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                squares[row][col] = null;
-            }
-        }
+        clear();
 
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
 
         for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(7, i), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, i), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
 
         for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(2, i), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, i), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        }
+    }
+
+    /**
+     * Builds a board from the piece placement field of a FEN string, e.g.
+     * {@code "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"}
+     *
+     * @param placement ranks 8 down to 1 separated by '/'
+     * @return the board described by placement
+     * @throws IllegalArgumentException if placement is malformed
+     */
+    public static ChessBoard fromFen(String placement) {
+        String[] rows = placement.split("/", -1);
+        if (rows.length != 8) {
+            throw new IllegalArgumentException("Expected 8 rows in FEN placement: " + placement);
+        }
+
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (int j = 0; j < rows[i].length(); j++) {
+                char c = rows[i].charAt(j);
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    continue;
+                }
+                ChessPiece piece = ChessPiece.fromFenSymbol(c);
+                if (piece == null || col > 8) {
+                    throw new IllegalArgumentException("Bad row '" + rows[i] + "' in FEN placement: " + placement);
+                }
+                board.setSquare(Bitboards.square(row, col), piece);
+                col++;
+            }
+            if (col != 9) {
+                throw new IllegalArgumentException("Row '" + rows[i] + "' does not cover 8 squares in FEN placement: " + placement);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @return the piece placement field of this board in FEN
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(71);
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = squares[row - 1][col - 1];
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(piece.fenSymbol());
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
         }
+        return fen.toString();
     }
 
     public ChessPiece[][] getBoard() {
@@ -93,26 +305,215 @@ public class ChessBoard {
     }
 
     public void setBoard(ChessPiece[][] newSquares) {
+        clear();
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
-                squares[row][col] = newSquares[row][col];
+                if (newSquares[row][col] != null) {
+                    setSquare(row * 8 + col, newSquares[row][col]);
+                }
             }
         }
     }
 
     public void movePiece(ChessMove move) {
-        ChessPosition startPosition = move.getStartPosition();
-        ChessPosition endPosition = move.getEndPosition();
+        ensureIndexed();
+
+        int startSquare = Bitboards.square(move.getStartPosition());
+        int endSquare = Bitboards.square(move.getEndPosition());
 
-        ChessPiece pieceToMove = getPiece(startPosition);
+        ChessPiece pieceToMove = getPiece(startSquare);
 
-        squares[startPosition.getRow() - 1][startPosition.getColumn() - 1] = null;
+        setSquare(startSquare, null);
 
         if (pieceToMove != null && pieceToMove.getPieceType() == ChessPiece.PieceType.PAWN && move.getPromotionPiece() != null) {
-            squares[endPosition.getRow() - 1][endPosition.getColumn() - 1] = new ChessPiece(pieceToMove.getTeamColor(), move.getPromotionPiece());
+            setSquare(endSquare, ChessPiece.of(pieceToMove.getTeamColor(), move.getPromotionPiece()));
         } else {
-            squares[endPosition.getRow() - 1][endPosition.getColumn() - 1] = pieceToMove;
+            setSquare(endSquare, pieceToMove);
+        }
+    }
+
+    /**
+     * Applies a move in place and returns a compact record that lets
+     * {@link #unmakeMove(ChessMove, int)} restore the board afterwards
+     *
+     * @param move the move to apply
+     * @return undo record for this move
+     */
+    public int makeMove(ChessMove move) {
+        return makeMove(PackedMove.encode(move));
+    }
+
+    /**
+     * Applies a packed move (see {@link PackedMove}) in place
+     *
+     * @param move the packed move to apply
+     * @return undo record for this move
+     */
+    public int makeMove(int move) {
+        ensureIndexed();
+
+        int startSquare = PackedMove.from(move);
+        int endSquare = PackedMove.to(move);
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+
+        ChessPiece pieceToMove = getPiece(startSquare);
+        ChessPiece captured = getPiece(endSquare);
+        int undo = pieceCode(pieceToMove) | (pieceCode(captured) << UNDO_PIECE_BITS);
+
+        setSquare(startSquare, null);
+
+        if (pieceToMove != null && pieceToMove.getPieceType() == ChessPiece.PieceType.PAWN && promotion != null) {
+            setSquare(endSquare, ChessPiece.of(pieceToMove.getTeamColor(), promotion));
+        } else {
+            setSquare(endSquare, pieceToMove);
+        }
+
+        return undo;
+    }
+
+    /**
+     * Reverts a move applied with {@link #makeMove(ChessMove)}. Moves must be
+     * unmade in the reverse order they were made.
+     *
+     * @param move the move that was applied
+     * @param undo the record makeMove returned for it
+     */
+    public void unmakeMove(ChessMove move, int undo) {
+        unmakeMove(PackedMove.encode(move), undo);
+    }
+
+    /**
+     * Reverts a packed move applied with {@link #makeMove(int)}
+     *
+     * @param move the packed move that was applied
+     * @param undo the record makeMove returned for it
+     */
+    public void unmakeMove(int move, int undo) {
+        setSquare(PackedMove.to(move), pieceFromCode((undo >>> UNDO_PIECE_BITS) & UNDO_PIECE_MASK));
+        setSquare(PackedMove.from(move), pieceFromCode(undo & UNDO_PIECE_MASK));
+    }
+
+    /**
+     * Works out how a move changed the Zobrist key from its undo record alone,
+     * so keys of earlier positions can be recovered without unmaking moves
+     *
+     * @param move the packed move that was applied
+     * @param undo the record makeMove returned for it
+     * @return the bits the move flipped in {@link #getZobristKey()}
+     */
+    static long moveKeyDelta(int move, int undo) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moved = movedPieceCode(undo);
+        int captured = capturedPieceCode(undo);
+
+        long delta = Zobrist.pieceKey(moved - 1, from) ^ Zobrist.pieceKey(placedPieceCode(move, moved) - 1, to);
+        if (captured != 0) {
+            delta ^= Zobrist.pieceKey(captured - 1, to);
+        }
+        return delta;
+    }
+
+    /**
+     * @return the code of the piece an undo record says was moved
+     */
+    static int movedPieceCode(int undo) {
+        return undo & UNDO_PIECE_MASK;
+    }
+
+    /**
+     * @return the code of the piece an undo record says was captured, or 0
+     */
+    static int capturedPieceCode(int undo) {
+        return (undo >>> UNDO_PIECE_BITS) & UNDO_PIECE_MASK;
+    }
+
+    /**
+     * @return the code of the piece a move leaves on its end square, which
+     * differs from the moved piece's code only for a pawn promotion
+     */
+    static int placedPieceCode(int move, int movedCode) {
+        ChessPiece moved = pieceFromCode(movedCode);
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion != null && moved.getPieceType() == ChessPiece.PieceType.PAWN) {
+            return pieceCode(ChessPiece.of(moved.getTeamColor(), promotion));
         }
+        return movedCode;
+    }
+
+    static int pieceCode(ChessPiece piece) {
+        return piece == null ? 0 : Bitboards.pieceIndex(piece.getTeamColor(), piece.getPieceType()) + 1;
+    }
+
+    private static ChessPiece pieceFromCode(int code) {
+        return code == 0 ? null : ChessPiece.fromIndex(code - 1);
+    }
+
+    private void setSquare(int square, ChessPiece piece) {
+        ChessPiece previous = squares[square >>> 3][square & 7];
+
+        if (previous != null) {
+            toggleIndex(square, previous);
+        }
+
+        if (piece != null) {
+            toggleIndex(square, piece);
+        }
+
+        squares[square >>> 3][square & 7] = piece;
+    }
+
+    private void toggleIndex(int square, ChessPiece piece) {
+        long mask = Bitboards.bit(square);
+        int pieceIndex = Bitboards.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieceBitboards[pieceIndex] ^= mask;
+        colorBitboards[piece.getTeamColor().ordinal()] ^= mask;
+        occupied ^= mask;
+        zobristKey ^= Zobrist.pieceKey(pieceIndex, square);
+
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            long kings = pieceBitboards[pieceIndex];
+            kingSquares[piece.getTeamColor().ordinal()] = kings == 0 ? -1 : Bitboards.firstSquare(kings);
+        }
+    }
+
+    private void clear() {
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                squares[row][col] = null;
+            }
+        }
+        resetIndex();
+    }
+
+    private void ensureIndexed() {
+        if (indexedSquares == squares) {
+            return;
+        }
+
+        resetIndex();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = getPiece(square);
+            if (piece != null) {
+                toggleIndex(square, piece);
+            }
+        }
+    }
+
+    private void resetIndex() {
+        // Boards built without running the constructor have no transient state yet
+        if (pieceBitboards == null) {
+            pieceBitboards = new long[12];
+            colorBitboards = new long[2];
+            kingSquares = new int[2];
+        }
+
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorBitboards, 0L);
+        occupied = 0L;
+        zobristKey = 0L;
+        Arrays.fill(kingSquares, -1);
+        indexedSquares = squares;
     }
 
     @Override
@@ -125,7 +526,8 @@ public class ChessBoard {
 
     @Override
     public int hashCode() {
-        return Objects.hash((Object) squares);
+        long key = getZobristKey();
+        return (int) (key ^ (key >>> 32));
     }
 
     @Override
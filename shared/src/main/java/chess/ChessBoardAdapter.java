@@ -0,0 +1,84 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes {@link ChessBoard} as {"squares":[[...],...]}, eight rows
+ * of eight pieces or nulls starting at row 1, the same shape reflection
+ * gives. Boards read this way are indexed as they are filled.
+ */
+public class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+    private static final ChessPieceAdapter PIECES = new ChessPieceAdapter();
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        out.beginObject();
+        out.name("squares");
+        out.beginArray();
+        for (int row = 0; row < 8; row++) {
+            out.beginArray();
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = board.getPiece(row * 8 + col);
+                if (piece == null) {
+                    out.nullValue();
+                } else {
+                    PIECES.write(out, piece);
+                }
+            }
+            out.endArray();
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        ChessPiece[][] squares = new ChessPiece[8][8];
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("squares")) {
+                readSquares(in, squares);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        ChessBoard board = new ChessBoard();
+        board.setBoard(squares);
+        return board;
+    }
+
+    private static void readSquares(JsonReader in, ChessPiece[][] squares) throws IOException {
+        int row = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (row == 8) {
+                throw new JsonParseException("ChessBoard has more than 8 rows at " + in.getPath());
+            }
+            int col = 0;
+            in.beginArray();
+            while (in.hasNext()) {
+                if (col == 8) {
+                    throw new JsonParseException("ChessBoard row has more than 8 squares at " + in.getPath());
+                }
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                } else {
+                    squares[row][col] = PIECES.read(in);
+                }
+                col++;
+            }
+            in.endArray();
+            row++;
+        }
+        in.endArray();
+    }
+}
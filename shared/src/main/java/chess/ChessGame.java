@@ -1,7 +1,9 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -9,11 +11,15 @@ import java.util.HashSet;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessGameAdapter.class)
 public class ChessGame {
     private TeamColor teamTurn;
     private ChessBoard board;
     private boolean gameOver = false;
     private boolean resigned = false;
+    private int halfmoveClock = 0;
+    private int fullmoveNumber = 1;
+    private final MoveHistory history = new MoveHistory();
 
     public ChessGame() {
         this.board = new ChessBoard();
@@ -37,6 +43,94 @@ public class ChessGame {
         this.teamTurn = team;
     }
 
+    /**
+     * Gets a 64-bit Zobrist key for the current position, covering the piece
+     * placement and the side to move
+     *
+     * @return key identifying the position
+     */
+    public long getPositionKey() {
+        return board.getZobristKey() ^ Zobrist.sideKey(teamTurn);
+    }
+
+    /**
+     * @return number of moves since the last pawn move or capture
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return number of the current full move, starting at 1 and increasing after black moves
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    void setMoveClocks(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Builds a game from a FEN string such as
+     * {@code "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"}.
+     * Fields after the placement may be left off and take their starting
+     * values. Castling and en passant are not part of this game's rules, so
+     * those fields are checked for form but otherwise ignored.
+     *
+     * @param fen the position in Forsyth-Edwards Notation
+     * @return a game in that position
+     * @throws IllegalArgumentException if fen is malformed
+     */
+    public static ChessGame fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length > 6) {
+            throw new IllegalArgumentException("Too many fields in FEN: " + fen);
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(ChessBoard.fromFen(fields[0]));
+
+        if (fields.length > 1) {
+            game.teamTurn = switch (fields[1]) {
+                case "w" -> TeamColor.WHITE;
+                case "b" -> TeamColor.BLACK;
+                default -> throw new IllegalArgumentException("Bad side to move in FEN: " + fen);
+            };
+        }
+        if (fields.length > 2 && !fields[2].matches("-|K?Q?k?q?")) {
+            throw new IllegalArgumentException("Bad castling field in FEN: " + fen);
+        }
+        if (fields.length > 3 && !fields[3].matches("-|[a-h][36]")) {
+            throw new IllegalArgumentException("Bad en passant field in FEN: " + fen);
+        }
+        try {
+            if (fields.length > 4) {
+                game.halfmoveClock = Integer.parseInt(fields[4]);
+            }
+            if (fields.length > 5) {
+                game.fullmoveNumber = Integer.parseInt(fields[5]);
+            }
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Bad move clock in FEN: " + fen, ex);
+        }
+        if (game.halfmoveClock < 0 || game.fullmoveNumber < 1) {
+            throw new IllegalArgumentException("Bad move clock in FEN: " + fen);
+        }
+        return game;
+    }
+
+    /**
+     * Gets the position in Forsyth-Edwards Notation. Castling and en passant
+     * are not part of this game's rules, so both fields are always "-".
+     *
+     * @return the FEN string for this game
+     */
+    public String toFen() {
+        return board.toFen() + (teamTurn == TeamColor.WHITE ? " w" : " b") + " - - " + halfmoveClock + " " + fullmoveNumber;
+    }
+
     public boolean isGameOver() {
         return gameOver;
     }
@@ -68,6 +162,19 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * Enum identifying the state of the side to move after a move
+     */
+    public enum GameStatus {
+        NORMAL,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        THREEFOLD_REPETITION,
+        FIFTY_MOVE_RULE,
+        INSUFFICIENT_MATERIAL
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -82,65 +189,46 @@ public class ChessGame {
             return null;
         }
 
-        Collection<ChessMove> possibleMoves = piece.pieceMoves(board, startPosition);
-        Collection<ChessMove> validMoves = new HashSet<>();
-
-        for (ChessMove move : possibleMoves) {
-            ChessBoard tempBoard = new ChessBoard();
-            tempBoard.setBoard(board.getBoard());
-            tempBoard.movePiece(move);
-
-            if (!isInCheck(piece.getTeamColor(), tempBoard)) {
-                validMoves.add(move);
+        int square = Bitboards.square(startPosition);
+        Collection<ChessMove> moves = new ArrayList<>();
+        for (int move : LegalMoveCache.shared().lookup(board, piece.getTeamColor()).moves()) {
+            if (PackedMove.from(move) == square) {
+                moves.add(PackedMove.toChessMove(move));
             }
         }
-        return validMoves;
+        return moves;
     }
 
-    private boolean isInCheck(TeamColor teamColor, ChessBoard board) {
-        ChessPosition kingPosition = findKingPosition(teamColor, board);
-        if (kingPosition == null) {
-            return false;
-        }
-
-        TeamColor opposingTeamColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (piece != null && piece.getTeamColor() == opposingTeamColor && canPieceAttackKing(piece, board, position, kingPosition)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    /**
+     * Passes each legal move of the team whose turn it is to sink, as a packed
+     * move (see {@link PackedMove}), until the sink asks to stop
+     *
+     * @param sink receives the moves
+     * @return false if the sink stopped the enumeration early
+     */
+    public boolean forEachLegalMove(MoveSink sink) {
+        return forEachLegalMove(teamTurn, sink);
     }
 
-    private boolean canPieceAttackKing(ChessPiece piece, ChessBoard board, ChessPosition piecePosition, ChessPosition kingPosition) {
-        Collection<ChessMove> possibleMoves = piece.pieceMoves(board, piecePosition);
-
-        for (ChessMove move : possibleMoves) {
-            if (move.getEndPosition().equals(kingPosition)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Passes each legal move of the given team to sink until the sink asks to stop
+     *
+     * @param teamColor which team's moves to enumerate
+     * @param sink receives the moves
+     * @return false if the sink stopped the enumeration early
+     */
+    public boolean forEachLegalMove(TeamColor teamColor, MoveSink sink) {
+        return new LegalMoveGenerator(board, teamColor).forEach(sink);
     }
 
-    private ChessPosition findKingPosition(TeamColor teamColor, ChessBoard board) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING ) {
-                    return position;
-                }
-            }
+    private boolean isInCheck(TeamColor teamColor, ChessBoard board) {
+        int kingSquare = board.getKingSquare(teamColor);
+        if (kingSquare < 0) {
+            return false;
         }
-        return null;
+
+        TeamColor opposingTeamColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        return board.isSquareAttacked(kingSquare, opposingTeamColor);
     }
 
     /**
@@ -170,9 +258,139 @@ public class ChessGame {
             throw new InvalidMoveException("Invalid move.");
         }
 
-        board.movePiece(move);
+        int packed = PackedMove.encode(move);
+        long keyBefore = getPositionKey();
+        int halfmoveClockBefore = halfmoveClock;
+        history.push(packed, keyBefore, applyMove(packed), halfmoveClockBefore);
+    }
+
+    /**
+     * Takes back the last move played, restoring the board, turn and move
+     * clocks. The move stays recorded and can be replayed with
+     * {@link #replayTo(int)} until a different move is made. Whether the game
+     * is over is left as it is.
+     *
+     * @throws InvalidMoveException if no moves have been played
+     */
+    public void undo() throws InvalidMoveException {
+        if (history.ply() == 0) {
+            throw new InvalidMoveException("There are no moves to undo.");
+        }
+        undoLast();
+    }
+
+    /**
+     * Undoes or replays recorded moves until the game is at the given ply
+     *
+     * @param ply number of moves from the start of the history, from 0 to
+     *            the history's length
+     * @throws IllegalArgumentException if ply is out of range
+     */
+    public void replayTo(int ply) {
+        if (ply < 0 || ply > history.length()) {
+            throw new IllegalArgumentException("Ply " + ply + " is outside the recorded history of " + history.length() + " moves");
+        }
+        while (history.ply() > ply) {
+            undoLast();
+        }
+        while (history.ply() < ply) {
+            int move = history.getMove(history.ply());
+            long keyBefore = getPositionKey();
+            int halfmoveClockBefore = halfmoveClock;
+            history.redo(keyBefore, applyMove(move), halfmoveClockBefore);
+        }
+    }
+
+    /**
+     * @return the moves played in this game since its board was last set
+     */
+    public MoveHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Replaces the history with moves and undo entries that lead to the
+     * current board, without replaying them
+     *
+     * @throws IllegalArgumentException if they could not have led to the
+     *                                  current board and side to move
+     */
+    void restoreHistory(int[] moves, int[] undos) {
+        history.restore(moves, undos, board, teamTurn);
+    }
+
+    /**
+     * Determines if the current position, with the same side to move, has
+     * occurred at least three times since the board was set
+     *
+     * @return True if the game can be drawn by threefold repetition
+     */
+    public boolean isThreefoldRepetition() {
+        return history.repetitions(getPositionKey(), halfmoveClock) >= 3;
+    }
+
+    /**
+     * Determines if neither side has the material left to checkmate: king
+     * against king, king and one minor piece against king, or kings and
+     * bishops that all stand on squares of one color
+     *
+     * @return True if the game is drawn by insufficient material
+     */
+    public boolean isInsufficientMaterial() {
+        for (TeamColor color : TeamColor.values()) {
+            if (board.getPieces(color, ChessPiece.PieceType.PAWN) != 0
+                    || board.getPieces(color, ChessPiece.PieceType.ROOK) != 0
+                    || board.getPieces(color, ChessPiece.PieceType.QUEEN) != 0) {
+                return false;
+            }
+        }
+
+        int knights = board.getPieceCount(TeamColor.WHITE, ChessPiece.PieceType.KNIGHT)
+                + board.getPieceCount(TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        long bishops = board.getPieces(TeamColor.WHITE, ChessPiece.PieceType.BISHOP)
+                | board.getPieces(TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+
+        if (knights + Bitboards.count(bishops) <= 1) {
+            return true;
+        }
+        return knights == 0
+                && ((bishops & Bitboards.LIGHT_SQUARES) == 0 || (bishops & ~Bitboards.LIGHT_SQUARES) == 0);
+    }
+
+    /**
+     * Determines if fifty moves by each side have passed without a pawn move
+     * or capture
+     *
+     * @return True if the game can be drawn by the fifty-move rule
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    private int applyMove(int move) {
+        ChessPiece pieceToMove = board.getPiece(PackedMove.from(move));
+        boolean resetsClock = pieceToMove.getPieceType() == ChessPiece.PieceType.PAWN
+                || board.getPiece(PackedMove.to(move)) != null;
+        int undo = board.makeMove(move);
+
+        halfmoveClock = resetsClock ? 0 : halfmoveClock + 1;
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
+        setTeamTurn(getTeamTurn() == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
+        return undo;
+    }
+
+    private void undoLast() {
+        int index = history.ply() - 1;
+        board.unmakeMove(history.getMove(index), history.boardUndo(index));
+        halfmoveClock = history.halfmoveClockBefore(index);
 
         setTeamTurn(getTeamTurn() == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber--;
+        }
+        history.undo();
     }
 
     /**
@@ -192,10 +410,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        if (!isInCheck(teamColor)) {
-            return false;
-        }
-        return !hasValidMoves(teamColor, board);
+        return evaluateStatus(teamColor) == GameStatus.CHECKMATE;
     }
 
     /**
@@ -206,48 +421,54 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
-            return false;
-        }
-        return !hasValidMoves(teamColor, board);
+        return evaluateStatus(teamColor) == GameStatus.STALEMATE;
     }
 
-    private boolean hasValidMoves(TeamColor teamColor, ChessBoard board) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (piece != null && piece.getTeamColor() == teamColor && pieceHasValidMoves(position, teamColor, board)) {
-                    return true;
-                }
-            }
+    /**
+     * Determines whether the team whose turn it is is in check, checkmate or
+     * stalemate, or whether the game is drawn by insufficient material,
+     * repetition or the fifty-move rule. Checkmate and stalemate take
+     * precedence over the draw rules.
+     *
+     * @return the status of the side to move
+     */
+    public GameStatus evaluateStatus() {
+        GameStatus status = evaluateStatus(teamTurn);
+        if (status == GameStatus.CHECKMATE || status == GameStatus.STALEMATE) {
+            return status;
+        }
+        if (isInsufficientMaterial()) {
+            return GameStatus.INSUFFICIENT_MATERIAL;
+        }
+        if (isThreefoldRepetition()) {
+            return GameStatus.THREEFOLD_REPETITION;
         }
-        return false;
+        if (isFiftyMoveRule()) {
+            return GameStatus.FIFTY_MOVE_RULE;
+        }
+        return status;
     }
 
-    private boolean pieceHasValidMoves(ChessPosition position, TeamColor teamColor, ChessBoard board) {
-        Collection<ChessMove> validMoves = validMoves(position);
-
-        for (ChessMove move : validMoves) {
-            ChessBoard tempBoard = new ChessBoard();
-            tempBoard.setBoard(board.getBoard());
-            tempBoard.movePiece(move);
-
-            if (!isInCheck(teamColor, tempBoard)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Determines whether the given team is in check, checkmate or stalemate,
+     * from the shared {@link LegalMoveCache} if the position is cached and
+     * otherwise by stopping at the first legal move
+     *
+     * @param teamColor which team to evaluate
+     * @return the status of the specified team
+     */
+    public GameStatus evaluateStatus(TeamColor teamColor) {
+        return LegalMoveCache.shared().status(board, teamColor);
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board, clearing the move history
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        history.clear();
     }
 
     /**
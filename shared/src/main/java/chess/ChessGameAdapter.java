@@ -0,0 +1,105 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads and writes {@link ChessGame} with the same field names reflection
+ * gives, plus its move history as parallel "moves" and "undos" arrays of
+ * packed ints. Fields missing from the input keep the values of a new game.
+ */
+public class ChessGameAdapter extends TypeAdapter<ChessGame> {
+    private static final ChessBoardAdapter BOARDS = new ChessBoardAdapter();
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        out.beginObject();
+        out.name("teamTurn").value(game.getTeamTurn() == null ? null : game.getTeamTurn().name());
+        out.name("board");
+        if (game.getBoard() == null) {
+            out.nullValue();
+        } else {
+            BOARDS.write(out, game.getBoard());
+        }
+        out.name("gameOver").value(game.isGameOver());
+        out.name("resigned").value(game.isResigned());
+        out.name("halfmoveClock").value(game.getHalfmoveClock());
+        out.name("fullmoveNumber").value(game.getFullmoveNumber());
+
+        MoveHistory history = game.getHistory();
+        out.name("moves").beginArray();
+        for (int i = 0; i < history.ply(); i++) {
+            out.value(history.getMove(i));
+        }
+        out.endArray();
+        out.name("undos").beginArray();
+        for (int i = 0; i < history.ply(); i++) {
+            out.value(history.undoEntry(i));
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        ChessGame game = new ChessGame();
+        int halfmoveClock = game.getHalfmoveClock();
+        int fullmoveNumber = game.getFullmoveNumber();
+        int[] moves = new int[0];
+        int[] undos = new int[0];
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                if (name.equals("teamTurn")) {
+                    game.setTeamTurn(null);
+                } else if (name.equals("board")) {
+                    game.setBoard(null);
+                }
+                continue;
+            }
+            switch (name) {
+                case "teamTurn" -> game.setTeamTurn(ChessGame.TeamColor.valueOf(in.nextString()));
+                case "board" -> game.setBoard(BOARDS.read(in));
+                case "gameOver" -> game.setGameOver(in.nextBoolean());
+                case "resigned" -> game.setResigned(in.nextBoolean());
+                case "halfmoveClock" -> halfmoveClock = in.nextInt();
+                case "fullmoveNumber" -> fullmoveNumber = in.nextInt();
+                case "moves" -> moves = readInts(in);
+                case "undos" -> undos = readInts(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        game.setMoveClocks(halfmoveClock, fullmoveNumber);
+        try {
+            game.restoreHistory(moves, undos);
+        } catch (IllegalArgumentException ex) {
+            throw new JsonParseException("Invalid ChessGame move history: " + ex.getMessage(), ex);
+        }
+        return game;
+    }
+
+    private static int[] readInts(JsonReader in) throws IOException {
+        int[] values = new int[16];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = in.nextInt();
+        }
+        in.endArray();
+        return Arrays.copyOf(values, size);
+    }
+}
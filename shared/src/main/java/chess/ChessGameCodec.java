@@ -0,0 +1,195 @@
+package chess;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+/**
+ * Compact versioned binary form of a {@link ChessGame}, as an alternative to
+ * its Gson JSON for storage and the wire.
+ * <p>
+ * Version 2 layout, big-endian:
+ * <pre>
+ *  byte   version (2)
+ *  byte   flags: 1 = black to move, 2 = game over, 4 = resigned
+ *  short  halfmove clock
+ *  short  fullmove number
+ *  long   occupancy mask, bit n set for each occupied square n (see {@link Bitboards})
+ *  byte[] one 4-bit piece index per occupied square in square order, two per byte,
+ *         high nibble first
+ *  short  number of moves in the history leading to the position
+ *  then for each move, oldest first:
+ *  short  packed move (see {@link PackedMove})
+ *  int    undo entry, as {@link MoveHistory} keeps it
+ * </pre>
+ * A full board with no moves takes 32 bytes, plus 6 bytes per move. Version 1
+ * is the same layout without the history, and is still read.
+ */
+public final class ChessGameCodec {
+    public static final int VERSION = 2;
+
+    private static final int VERSION_WITHOUT_HISTORY = 1;
+    // Largest value the unsigned short clock and history count fields hold
+    private static final int MAX_SHORT = 0xFFFF;
+
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int GAME_OVER = 2;
+    private static final int RESIGNED = 4;
+
+    private ChessGameCodec() {}
+
+    /**
+     * Writes game to out in the current version's layout
+     *
+     * @throws IOException if out fails, or the halfmove clock, fullmove number
+     *                     or number of moves in the history is outside the
+     *                     range 0 to 65535 that the layout can hold
+     */
+    public static void encode(ChessGame game, DataOutput out) throws IOException {
+        ChessBoard board = game.getBoard();
+        int flags = (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0)
+                | (game.isGameOver() ? GAME_OVER : 0)
+                | (game.isResigned() ? RESIGNED : 0);
+
+        MoveHistory history = game.getHistory();
+        checkShort("halfmove clock", game.getHalfmoveClock());
+        checkShort("fullmove number", game.getFullmoveNumber());
+        checkShort("history length", history.ply());
+
+        out.writeByte(VERSION);
+        out.writeByte(flags);
+        out.writeShort(game.getHalfmoveClock());
+        out.writeShort(game.getFullmoveNumber());
+
+        long occupied = board.getOccupied();
+        out.writeLong(occupied);
+
+        int pending = -1;
+        for (; occupied != 0; occupied = Bitboards.clearFirst(occupied)) {
+            ChessPiece piece = board.getPiece(Bitboards.firstSquare(occupied));
+            int code = Bitboards.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+            if (pending < 0) {
+                pending = code;
+            } else {
+                out.writeByte(pending << 4 | code);
+                pending = -1;
+            }
+        }
+        if (pending >= 0) {
+            out.writeByte(pending << 4);
+        }
+
+        out.writeShort(history.ply());
+        for (int i = 0; i < history.ply(); i++) {
+            out.writeShort(history.getMove(i));
+            out.writeInt(history.undoEntry(i));
+        }
+    }
+
+    /**
+     * Reads a game written by {@link #encode(ChessGame, DataOutput)}, in this
+     * version's layout or version 1's; a version 1 game has an empty history
+     *
+     * @throws IOException if the input ends early, has an unknown version,
+     *                     holds an invalid piece or a move history that could not have
+     *                     led to the position
+     */
+    public static ChessGame decode(DataInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != VERSION && version != VERSION_WITHOUT_HISTORY) {
+            throw new IOException("Unsupported ChessGame encoding version: " + version);
+        }
+
+        int flags = in.readUnsignedByte();
+        int halfmoveClock = in.readUnsignedShort();
+        int fullmoveNumber = in.readUnsignedShort();
+        long occupied = in.readLong();
+
+        ChessBoard board = new ChessBoard();
+        int packed = 0;
+        for (int i = 0; occupied != 0; i++, occupied = Bitboards.clearFirst(occupied)) {
+            if ((i & 1) == 0) {
+                packed = in.readUnsignedByte();
+            }
+            int code = (i & 1) == 0 ? packed >>> 4 : packed & 0xF;
+            if (code >= 12) {
+                throw new IOException("Invalid piece code in ChessGame encoding: " + code);
+            }
+            board.addPiece(Bitboards.position(Bitboards.firstSquare(occupied)), ChessPiece.fromIndex(code));
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn((flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        game.setGameOver((flags & GAME_OVER) != 0);
+        game.setResigned((flags & RESIGNED) != 0);
+        game.setMoveClocks(halfmoveClock, fullmoveNumber);
+
+        if (version == VERSION) {
+            int count = in.readUnsignedShort();
+            int[] moves = new int[count];
+            int[] undos = new int[count];
+            for (int i = 0; i < count; i++) {
+                moves[i] = in.readUnsignedShort();
+                undos[i] = in.readInt();
+            }
+            try {
+                game.restoreHistory(moves, undos);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Invalid move history in ChessGame encoding: " + ex.getMessage(), ex);
+            }
+        }
+        return game;
+    }
+
+    private static void checkShort(String field, int value) throws IOException {
+        if (value < 0 || value > MAX_SHORT) {
+            throw new IOException("ChessGame " + field + " out of encodable range 0-" + MAX_SHORT + ": " + value);
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException if game has a value the layout cannot hold
+     */
+    public static byte[] toBytes(ChessGame game) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + 6 * game.getHistory().ply());
+        try {
+            encode(game, new DataOutputStream(bytes));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if bytes is not a valid encoding
+     */
+    public static ChessGame fromBytes(byte[] bytes) {
+        try {
+            return decode(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Invalid ChessGame encoding: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * @return the encoding as Base64 text, for text columns and JSON fields
+     * @throws UncheckedIOException if game has a value the layout cannot hold
+     */
+    public static String toBase64(ChessGame game) {
+        return Base64.getEncoder().encodeToString(toBytes(game));
+    }
+
+    /**
+     * @throws IllegalArgumentException if text is not Base64 of a valid encoding
+     */
+    public static ChessGame fromBase64(String text) {
+        return fromBytes(Base64.getDecoder().decode(text));
+    }
+}
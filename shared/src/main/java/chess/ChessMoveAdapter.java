@@ -0,0 +1,70 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes {@link ChessMove} as
+ * {"startPosition":{...},"endPosition":{...},"promotionPiece":...}, the same
+ * shape reflection gives, without reflection.
+ */
+public class ChessMoveAdapter extends TypeAdapter<ChessMove> {
+    private static final ChessPositionAdapter POSITIONS = new ChessPositionAdapter();
+
+    @Override
+    public void write(JsonWriter out, ChessMove move) throws IOException {
+        out.beginObject();
+        out.name("startPosition");
+        writePosition(out, move.getStartPosition());
+        out.name("endPosition");
+        writePosition(out, move.getEndPosition());
+        out.name("promotionPiece").value(move.getPromotionPiece() == null ? null : move.getPromotionPiece().name());
+        out.endObject();
+    }
+
+    @Override
+    public ChessMove read(JsonReader in) throws IOException {
+        ChessPosition startPosition = null;
+        ChessPosition endPosition = null;
+        ChessPiece.PieceType promotionPiece = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "startPosition" -> startPosition = readPosition(in);
+                case "endPosition" -> endPosition = readPosition(in);
+                case "promotionPiece" -> {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        promotionPiece = ChessPiece.PieceType.valueOf(in.nextString());
+                    }
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new ChessMove(startPosition, endPosition, promotionPiece);
+    }
+
+    private static void writePosition(JsonWriter out, ChessPosition position) throws IOException {
+        if (position == null) {
+            out.nullValue();
+        } else {
+            POSITIONS.write(out, position);
+        }
+    }
+
+    private static ChessPosition readPosition(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return POSITIONS.read(in);
+    }
+}
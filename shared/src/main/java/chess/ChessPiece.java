@@ -1,5 +1,7 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Collection;
 import java.util.Objects;
 
@@ -9,8 +11,21 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPieceAdapter.class)
 public class ChessPiece {
 
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+    // FEN letters in piece index order: white uppercase, black lowercase
+    private static final String FEN_SYMBOLS = "KQBNRPkqbnrp";
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor teamColor;
     private final PieceType pieceType;
 
@@ -19,6 +34,31 @@ public class ChessPiece {
         this.pieceType = type;
     }
 
+    /**
+     * Gets the shared instance for a color and piece type
+     *
+     * @return the piece of the given color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
+    static ChessPiece fromIndex(int pieceIndex) {
+        return PIECES[pieceIndex];
+    }
+
+    /**
+     * @return the piece a FEN letter stands for, or null if it is not a piece letter
+     */
+    static ChessPiece fromFenSymbol(char symbol) {
+        int index = FEN_SYMBOLS.indexOf(symbol);
+        return index < 0 ? null : PIECES[index];
+    }
+
+    char fenSymbol() {
+        return FEN_SYMBOLS.charAt(teamColor.ordinal() * 6 + pieceType.ordinal());
+    }
+
     /**
      * The various different chess piece options
      */
@@ -66,7 +106,7 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamColor, pieceType);
+        return 31 * Objects.hashCode(teamColor) + Objects.hashCode(pieceType);
     }
 
     @Override
@@ -0,0 +1,58 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes {@link ChessPiece} as {"teamColor":...,"pieceType":...},
+ * resolving to the shared instance for that color and type. Reading fails
+ * with {@link JsonParseException} if either is missing or unknown.
+ */
+public class ChessPieceAdapter extends TypeAdapter<ChessPiece> {
+    @Override
+    public void write(JsonWriter out, ChessPiece piece) throws IOException {
+        out.beginObject();
+        out.name("teamColor").value(piece.getTeamColor() == null ? null : piece.getTeamColor().name());
+        out.name("pieceType").value(piece.getPieceType() == null ? null : piece.getPieceType().name());
+        out.endObject();
+    }
+
+    @Override
+    public ChessPiece read(JsonReader in) throws IOException {
+        ChessGame.TeamColor teamColor = null;
+        ChessPiece.PieceType pieceType = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "teamColor" -> teamColor = readEnum(in, ChessGame.TeamColor.class);
+                case "pieceType" -> pieceType = readEnum(in, ChessPiece.PieceType.class);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (teamColor == null || pieceType == null) {
+            throw new JsonParseException("ChessPiece needs a teamColor and a pieceType");
+        }
+        return ChessPiece.of(teamColor, pieceType);
+    }
+
+    private static <T extends Enum<T>> T readEnum(JsonReader in, Class<T> type) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String name = in.nextString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException ex) {
+            throw new JsonParseException("Unknown " + type.getSimpleName() + ": " + name, ex);
+        }
+    }
+}
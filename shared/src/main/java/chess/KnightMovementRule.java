@@ -1,22 +1,11 @@
 package chess;
 
-import java.util.Collection;
-import java.util.HashSet;
-
 public class KnightMovementRule extends BaseMovementRule {
     @Override
-    public Collection<ChessMove> moves(ChessBoard board, ChessPosition position) {
-        var validMoves = new HashSet<ChessMove>();
-
-        int[][] directions = {
-                {2, 1}, {2, -1},
-                {-2, 1}, {-2, -1},
-                {1, 2}, {1, -2},
-                {-1, 2}, {-1, -2}
-        };
-
-        calculateMoves(board, position, directions, validMoves, true);
+    public boolean forEachMove(ChessBoard board, int square, MoveSink sink) {
+        ChessPiece knight = board.getPiece(square);
 
-        return validMoves;
+        long own = board.getPieces(knight.getTeamColor());
+        return MoveSink.acceptTargets(sink, square, Attacks.knightAttacks(square) & ~own, Bitboards.EMPTY);
     }
 }
\ No newline at end of file
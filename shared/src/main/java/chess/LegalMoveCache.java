@@ -0,0 +1,151 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded least-recently-used cache of the legal moves and status of one
+ * side of a position, keyed by the position's Zobrist key with that side to
+ * move.
+ * <p>
+ * {@link ChessGame} consults {@link #shared()} so repeated highlight requests,
+ * reloaded games and post-move status checks on a position already seen only
+ * generate its moves once. The cache is safe to use from several threads.
+ */
+public class LegalMoveCache {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final LegalMoveCache SHARED = new LegalMoveCache(DEFAULT_CAPACITY);
+
+    /**
+     * The legal moves of one side, as packed moves (see {@link PackedMove}),
+     * and that side's status
+     */
+    record Entry(int[] moves, ChessGame.GameStatus status) {}
+
+    private record Cached(long occupied, Entry entry) {}
+
+    private final int capacity;
+    private final LinkedHashMap<Long, Cached> entries;
+    private long hits;
+    private long misses;
+
+    public LegalMoveCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Cached> eldest) {
+                return size() > LegalMoveCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the cache used by every {@link ChessGame}
+     */
+    public static LegalMoveCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the legal moves and status of a side, generating and storing them
+     * if the position is not cached
+     *
+     * @param board the position
+     * @param color the side to look up
+     * @return that side's legal moves and status
+     */
+    Entry lookup(ChessBoard board, ChessGame.TeamColor color) {
+        long key = board.getZobristKey() ^ Zobrist.sideKey(color);
+        long occupied = board.getOccupied();
+        Entry cached = find(key, occupied);
+        if (cached != null) {
+            return cached;
+        }
+
+        Entry entry = generate(board, color);
+        synchronized (this) {
+            entries.put(key, new Cached(occupied, entry));
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the status of a side. A cached position answers from its entry;
+     * otherwise the status is worked out by stopping at the first legal move,
+     * and nothing is stored since the full move list was never built.
+     *
+     * @param board the position
+     * @param color the side to look up
+     * @return that side's status
+     */
+    ChessGame.GameStatus status(ChessBoard board, ChessGame.TeamColor color) {
+        Entry cached = find(board.getZobristKey() ^ Zobrist.sideKey(color), board.getOccupied());
+        if (cached != null) {
+            return cached.status();
+        }
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+        return status(generator.inCheck(), generator.hasLegalMove());
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes every entry and resets the hit and miss counters
+     */
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    private synchronized Entry find(long key, long occupied) {
+        Cached cached = entries.get(key);
+        // Different placements sharing a key are vanishingly rare, but a
+        // cheap occupancy check turns one into a miss instead of wrong moves
+        if (cached != null && cached.occupied() == occupied) {
+            hits++;
+            return cached.entry();
+        }
+        misses++;
+        return null;
+    }
+
+    private static Entry generate(ChessBoard board, ChessGame.TeamColor color) {
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+        MoveList moves = new MoveList();
+        generator.generate(moves);
+
+        int[] packed = new int[moves.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = moves.get(i);
+        }
+
+        return new Entry(packed, status(generator.inCheck(), !moves.isEmpty()));
+    }
+
+    private static ChessGame.GameStatus status(boolean inCheck, boolean hasLegalMove) {
+        if (inCheck) {
+            return hasLegalMove ? ChessGame.GameStatus.CHECK : ChessGame.GameStatus.CHECKMATE;
+        }
+        return hasLegalMove ? ChessGame.GameStatus.NORMAL : ChessGame.GameStatus.STALEMATE;
+    }
+}
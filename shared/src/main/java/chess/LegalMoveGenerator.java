@@ -0,0 +1,192 @@
+package chess;
+
+/**
+ * Generates fully legal moves for one side of a position.
+ * <p>
+ * The pieces giving check and the pieces pinned to the king are worked out
+ * once when the generator is built; each move is then filtered with masks
+ * instead of being played out and tested for check.
+ */
+public class LegalMoveGenerator {
+    private final ChessBoard board;
+    private final ChessGame.TeamColor color;
+    private final ChessGame.TeamColor opponent;
+    private final long own;
+    private final long enemy;
+    private final long occupied;
+    private final int kingSquare;
+    private final long checkers;
+    private final long pinned;
+    private final long checkMask;
+
+    public LegalMoveGenerator(ChessBoard board, ChessGame.TeamColor color) {
+        this.board = board;
+        this.color = color;
+        this.opponent = (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        this.own = board.getPieces(color);
+        this.enemy = board.getPieces(opponent);
+        this.occupied = board.getOccupied();
+
+        int king = board.getKingSquare(color);
+        if (king < 0) {
+            // Without a king nothing can be left in check
+            kingSquare = -1;
+            checkers = 0L;
+            pinned = 0L;
+            checkMask = Bitboards.ALL;
+            return;
+        }
+
+        kingSquare = king;
+        checkers = board.attackersTo(kingSquare, opponent, occupied);
+        pinned = findPinned();
+
+        if (checkers == 0) {
+            checkMask = Bitboards.ALL;
+        } else if (Bitboards.count(checkers) == 1) {
+            checkMask = checkers | Attacks.between(kingSquare, Bitboards.firstSquare(checkers));
+        } else {
+            checkMask = Bitboards.EMPTY;
+        }
+    }
+
+    /**
+     * @return true if the side to generate for is in check
+     */
+    public boolean inCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * Adds the legal moves of every piece of this color to moves
+     */
+    public void generate(MoveList moves) {
+        for (long pieces = own; pieces != 0; pieces = Bitboards.clearFirst(pieces)) {
+            generateFrom(Bitboards.firstSquare(pieces), moves);
+        }
+    }
+
+    /**
+     * Adds the legal moves of the piece on square to moves. Adds nothing if the
+     * square does not hold a piece of this generator's color.
+     */
+    public void generateFrom(int square, MoveList moves) {
+        if (!Bitboards.isSet(own, square)) {
+            return;
+        }
+
+        ChessPiece.PieceType type = board.getPiece(square).getPieceType();
+        long promotionRow = (type == ChessPiece.PieceType.PAWN) ? Bitboards.promotionRow(color) : Bitboards.EMPTY;
+        moves.addTargets(square, targets(square, type), promotionRow);
+    }
+
+    /**
+     * Passes each legal move of this color to sink until the sink asks to stop
+     *
+     * @return false if the sink stopped the enumeration
+     */
+    public boolean forEach(MoveSink sink) {
+        for (long pieces = own; pieces != 0; pieces = Bitboards.clearFirst(pieces)) {
+            if (!forEachFrom(Bitboards.firstSquare(pieces), sink)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passes each legal move of the piece on square to sink until the sink asks
+     * to stop. Passes nothing if the square does not hold a piece of this
+     * generator's color.
+     *
+     * @return false if the sink stopped the enumeration
+     */
+    public boolean forEachFrom(int square, MoveSink sink) {
+        if (!Bitboards.isSet(own, square)) {
+            return true;
+        }
+
+        ChessPiece.PieceType type = board.getPiece(square).getPieceType();
+        long promotionRow = (type == ChessPiece.PieceType.PAWN) ? Bitboards.promotionRow(color) : Bitboards.EMPTY;
+        return MoveSink.acceptTargets(sink, square, targets(square, type), promotionRow);
+    }
+
+    /**
+     * @return true if any piece of this color has at least one legal move
+     */
+    public boolean hasLegalMove() {
+        for (long pieces = own; pieces != 0; pieces = Bitboards.clearFirst(pieces)) {
+            int square = Bitboards.firstSquare(pieces);
+            if (targets(square, board.getPiece(square).getPieceType()) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long targets(int square, ChessPiece.PieceType type) {
+        if (type == ChessPiece.PieceType.KING) {
+            return kingTargets(square);
+        }
+
+        long targets = switch (type) {
+            case QUEEN -> Attacks.queenAttacks(square, occupied) & ~own;
+            case BISHOP -> Attacks.bishopAttacks(square, occupied) & ~own;
+            case ROOK -> Attacks.rookAttacks(square, occupied) & ~own;
+            case KNIGHT -> Attacks.knightAttacks(square) & ~own;
+            default -> pawnTargets(square);
+        };
+
+        targets &= checkMask;
+        if (Bitboards.isSet(pinned, square)) {
+            targets &= Attacks.line(kingSquare, square);
+        }
+        return targets;
+    }
+
+    private long kingTargets(int square) {
+        long targets = 0L;
+        // The king no longer blocks rays once it steps away
+        long occupiedWithoutKing = occupied & ~Bitboards.bit(square);
+
+        for (long candidates = Attacks.kingAttacks(square) & ~own; candidates != 0; candidates = Bitboards.clearFirst(candidates)) {
+            int target = Bitboards.firstSquare(candidates);
+            if (board.attackersTo(target, opponent, occupiedWithoutKing) == 0) {
+                targets |= Bitboards.bit(target);
+            }
+        }
+        return targets;
+    }
+
+    private long pawnTargets(int square) {
+        long targets = Attacks.pawnAttacks(color, square) & enemy;
+        long oneStep = Attacks.pawnPushes(color, square) & ~occupied;
+
+        if (oneStep != 0) {
+            targets |= oneStep;
+            int startRow = (color == ChessGame.TeamColor.WHITE) ? 2 : 7;
+            if (Bitboards.row(square) == startRow) {
+                targets |= Attacks.pawnPushes(color, Bitboards.firstSquare(oneStep)) & ~occupied;
+            }
+        }
+        return targets;
+    }
+
+    private long findPinned() {
+        long rookLike = board.getPieces(opponent, ChessPiece.PieceType.ROOK)
+                | board.getPieces(opponent, ChessPiece.PieceType.QUEEN);
+        long bishopLike = board.getPieces(opponent, ChessPiece.PieceType.BISHOP)
+                | board.getPieces(opponent, ChessPiece.PieceType.QUEEN);
+        long snipers = (Attacks.rookAttacks(kingSquare, 0L) & rookLike)
+                | (Attacks.bishopAttacks(kingSquare, 0L) & bishopLike);
+
+        long result = 0L;
+        for (; snipers != 0; snipers = Bitboards.clearFirst(snipers)) {
+            long blockers = Attacks.between(kingSquare, Bitboards.firstSquare(snipers)) & occupied;
+            if (Bitboards.count(blockers) == 1 && (blockers & own) != 0) {
+                result |= blockers;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,257 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The moves played in a {@link ChessGame}, kept as packed moves (see
+ * {@link PackedMove}) alongside the undo record of each one and the position
+ * key before it in growable primitive arrays.
+ * <p>
+ * After an undo the later moves stay recorded, so the game can be replayed
+ * forward again until a different move is made. Iterating gives the moves
+ * leading to the current position.
+ */
+public class MoveHistory implements Iterable<ChessMove> {
+    // Each undo entry keeps ChessBoard's undo record in the low bits and the
+    // halfmove clock from before the move above it.
+    private static final int CLOCK_SHIFT = 8;
+    private static final int BOARD_UNDO_MASK = (1 << CLOCK_SHIFT) - 1;
+    private static final int PIECE_CODES = 12;
+    // A packed move holds its promotion code above the two squares
+    private static final int PROMOTION_SHIFT = 12;
+
+    private int[] moves = new int[64];
+    private int[] undos = new int[64];
+    private long[] keys = new long[64];
+    private int ply;
+    private int length;
+    // keys[i] is known for keyedFrom <= i < ply; older keys are worked out on demand
+    private int keyedFrom;
+
+    /**
+     * @return number of moves leading to the current position
+     */
+    public int ply() {
+        return ply;
+    }
+
+    /**
+     * @return number of moves recorded, including any undone moves that can be replayed
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return the packed move played at the given ply, counting from 0
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Ply " + index + " out of range for length " + length);
+        }
+        return moves[index];
+    }
+
+    /**
+     * Passes the moves leading to the current position to sink, oldest first,
+     * until the sink asks to stop
+     *
+     * @return false if the sink stopped the enumeration
+     */
+    public boolean forEachMove(MoveSink sink) {
+        for (int i = 0; i < ply; i++) {
+            if (!sink.accept(moves[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<ChessMove> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < ply;
+            }
+
+            @Override
+            public ChessMove next() {
+                if (next >= ply) {
+                    throw new NoSuchElementException();
+                }
+                return PackedMove.toChessMove(moves[next++]);
+            }
+        };
+    }
+
+    /**
+     * Records a move at the current ply, dropping any undone moves after it
+     */
+    void push(int move, long keyBefore, int boardUndo, int halfmoveClockBefore) {
+        if (ply == moves.length) {
+            moves = Arrays.copyOf(moves, ply * 2);
+            undos = Arrays.copyOf(undos, ply * 2);
+            keys = Arrays.copyOf(keys, ply * 2);
+        }
+        moves[ply] = move;
+        keys[ply] = keyBefore;
+        undos[ply] = boardUndo | halfmoveClockBefore << CLOCK_SHIFT;
+        ply++;
+        length = ply;
+    }
+
+    /**
+     * Moves the current ply forward over a recorded move that was replayed,
+     * storing its fresh undo record
+     */
+    void redo(long keyBefore, int boardUndo, int halfmoveClockBefore) {
+        keys[ply] = keyBefore;
+        undos[ply] = boardUndo | halfmoveClockBefore << CLOCK_SHIFT;
+        ply++;
+    }
+
+    /**
+     * Moves the current ply back over the last move, keeping it recorded
+     */
+    void undo() {
+        ply--;
+        keyedFrom = Math.min(keyedFrom, ply);
+    }
+
+    /**
+     * Counts how often a position has occurred, looking back only as far as
+     * the last pawn move or capture since no earlier position can recur
+     *
+     * @param currentKey    position key of the current position
+     * @param halfmoveClock plies since the last pawn move or capture
+     * @return occurrences of the position, including the current one
+     */
+    int repetitions(long currentKey, int halfmoveClock) {
+        int count = 1;
+        int oldest = Math.max(0, ply - halfmoveClock);
+        fillKeys(oldest, currentKey);
+        // Only positions with the same side to move can match
+        for (int i = ply - 2; i >= oldest; i -= 2) {
+            if (keys[i] == currentKey) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Works out the unknown position keys from index oldest up to the current
+     * ply, walking back from the earliest known key and taking each move back
+     * out of it
+     */
+    private void fillKeys(int oldest, long currentKey) {
+        if (oldest >= keyedFrom) {
+            return;
+        }
+        long key = keyedFrom == ply ? currentKey : keys[keyedFrom];
+        for (int i = keyedFrom - 1; i >= oldest; i--) {
+            // Every move also hands the turn to the other side
+            key ^= ChessBoard.moveKeyDelta(moves[i], undos[i] & BOARD_UNDO_MASK) ^ Zobrist.BLACK_TO_MOVE;
+            keys[i] = key;
+        }
+        keyedFrom = oldest;
+    }
+
+    int boardUndo(int index) {
+        return undos[index] & BOARD_UNDO_MASK;
+    }
+
+    int halfmoveClockBefore(int index) {
+        return undos[index] >>> CLOCK_SHIFT;
+    }
+
+    int undoEntry(int index) {
+        return undos[index];
+    }
+
+    /**
+     * Replaces the history with moves and undo entries (as given by
+     * {@link #undoEntry}) that lead to the current position. The position
+     * keys are worked out from the current position only when a repetition
+     * check needs them.
+     *
+     * @param board      the current board
+     * @param sideToMove the side to move on the current board
+     * @throws IllegalArgumentException if the moves and undo entries could
+     *                                  not have led to the current position
+     */
+    void restore(int[] restoredMoves, int[] restoredUndos, ChessBoard board, ChessGame.TeamColor sideToMove) {
+        validate(restoredMoves, restoredUndos, board, sideToMove);
+        clear();
+        for (int i = 0; i < restoredMoves.length; i++) {
+            push(restoredMoves[i], 0L, restoredUndos[i] & BOARD_UNDO_MASK, restoredUndos[i] >>> CLOCK_SHIFT);
+        }
+        keyedFrom = ply;
+    }
+
+    /**
+     * Takes the moves back one by one on a scratch copy of the board's piece
+     * codes, checking that each undo entry holds real pieces, that the sides
+     * alternate and that each move's pieces stand where the later board has
+     * them
+     */
+    private static void validate(int[] moves, int[] undos, ChessBoard board, ChessGame.TeamColor sideToMove) {
+        if (moves.length != undos.length) {
+            throw new IllegalArgumentException(moves.length + " moves but " + undos.length + " undo entries");
+        }
+        if (moves.length == 0) {
+            return;
+        }
+        if (board == null || sideToMove == null) {
+            throw new IllegalArgumentException("Move history without a board and side to move");
+        }
+
+        int[] codes = new int[64];
+        for (int square = 0; square < codes.length; square++) {
+            codes[square] = ChessBoard.pieceCode(board.getPiece(square));
+        }
+
+        ChessGame.TeamColor mover = sideToMove;
+        for (int i = moves.length - 1; i >= 0; i--) {
+            mover = mover == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            int move = moves[i];
+            if (move < 0 || move >>> PROMOTION_SHIFT > ChessPiece.PieceType.values().length || undos[i] < 0) {
+                throw new IllegalArgumentException("Malformed move or undo entry at ply " + i);
+            }
+            int from = PackedMove.from(move);
+            int to = PackedMove.to(move);
+            int moved = ChessBoard.movedPieceCode(undos[i]);
+            int captured = ChessBoard.capturedPieceCode(undos[i]);
+
+            if (moved == 0 || moved > PIECE_CODES || captured > PIECE_CODES) {
+                throw new IllegalArgumentException("Invalid piece code in undo entry at ply " + i);
+            }
+            ChessPiece movedPiece = ChessPiece.fromIndex(moved - 1);
+            if (movedPiece.getTeamColor() != mover) {
+                throw new IllegalArgumentException("Move at ply " + i + " is not by the side to move");
+            }
+            if (PackedMove.promotion(move) != null && movedPiece.getPieceType() != ChessPiece.PieceType.PAWN) {
+                throw new IllegalArgumentException("Move at ply " + i + " promotes a piece that is not a pawn");
+            }
+            if (captured != 0 && ChessPiece.fromIndex(captured - 1).getTeamColor() == mover) {
+                throw new IllegalArgumentException("Move at ply " + i + " captures its own piece");
+            }
+            if (from == to || codes[from] != 0 || codes[to] != ChessBoard.placedPieceCode(move, moved)) {
+                throw new IllegalArgumentException("Move at ply " + i + " does not lead to the later board");
+            }
+            codes[to] = captured;
+            codes[from] = moved;
+        }
+    }
+
+    void clear() {
+        ply = 0;
+        length = 0;
+        keyedFrom = 0;
+    }
+}
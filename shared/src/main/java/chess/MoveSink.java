@@ -0,0 +1,37 @@
+package chess;
+
+/**
+ * Receives packed moves (see {@link PackedMove}) one at a time as they are
+ * generated, so callers can inspect moves without collecting them and stop
+ * as soon as they have their answer.
+ */
+@FunctionalInterface
+public interface MoveSink {
+    /**
+     * @param move the packed move
+     * @return true to keep enumerating, false to stop
+     */
+    boolean accept(int move);
+
+    /**
+     * Passes a move to every square in targets to sink, expanding moves that
+     * land on promotionRows into one move per promotion piece
+     *
+     * @return false if the sink stopped the enumeration
+     */
+    static boolean acceptTargets(MoveSink sink, int from, long targets, long promotionRows) {
+        for (; targets != 0; targets = Bitboards.clearFirst(targets)) {
+            int to = Bitboards.firstSquare(targets);
+            if (Bitboards.isSet(promotionRows, to)) {
+                for (ChessPiece.PieceType promotion : MoveList.PROMOTION_TYPES) {
+                    if (!sink.accept(PackedMove.encode(from, to, promotion))) {
+                        return false;
+                    }
+                }
+            } else if (!sink.accept(PackedMove.encode(from, to))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -4,4 +4,15 @@ import java.util.Collection;
 
 public interface MovementRule {
     Collection<ChessMove> moves(ChessBoard board, ChessPosition position);
-}
\ No newline at end of file
+
+    /**
+     * Passes each move of the piece on square to sink until the sink asks to stop
+     *
+     * @return false if the sink stopped the enumeration
+     */
+    boolean forEachMove(ChessBoard board, int square, MoveSink sink);
+
+    default void addMoves(ChessBoard board, int square, MoveList moves) {
+        forEachMove(board, square, moves);
+    }
+}
@@ -0,0 +1,48 @@
+package chess;
+
+/**
+ * Helpers for moves packed into an int, used inside move generation so no
+ * {@link ChessMove} objects are created until moves leave the package API.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square (numbered as in
+ * {@link Bitboards}) and bits 12-14 the promotion piece type ordinal plus
+ * one, or 0 when the move does not promote.
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {}
+
+    public static int encode(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion) {
+        int code = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (code << 12);
+    }
+
+    public static int encode(ChessMove move) {
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece());
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 0x7;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(Bitboards.position(from(move)), Bitboards.position(to(move)), promotion(move));
+    }
+}
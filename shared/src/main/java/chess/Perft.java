@@ -0,0 +1,301 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree from a position (perft), for
+ * checking the move generator against known node counts and measuring its
+ * throughput.
+ * <p>
+ * Run from the command line with
+ * {@code java -cp shared.jar chess.Perft <depth> [position] [--divide]},
+ * where position is a reference position name or a placement/side string
+ * such as {@code "8/8/8/8/8/8/8/K6k w"}, or with {@code --reference [depth]}
+ * to check every reference position. Adding {@code --threads <n>} also runs
+ * the count on a fork/join pool of n threads and reports the speedup.
+ */
+public class Perft {
+    /**
+     * A position with its node counts for depths 1, 2, 3, ...
+     * <p>
+     * Counts follow this project's rules, which have no castling or en passant,
+     * so positions that allow either only match published tables at the depths
+     * before those moves appear.
+     */
+    public record ReferencePosition(String name, String fen, long... nodes) {}
+
+    public static final List<ReferencePosition> REFERENCE_POSITIONS = List.of(
+            new ReferencePosition("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+                    20, 400, 8902, 197281, 4865351),
+            new ReferencePosition("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w",
+                    46, 1865, 86585, 3499358),
+            new ReferencePosition("endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w",
+                    14, 191, 2810, 43087, 671300),
+            new ReferencePosition("middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w",
+                    46, 2079, 89890, 3894594),
+            new ReferencePosition("promotion", "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b",
+                    24, 496, 9483, 182838, 3605103)
+    );
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor sideToMove;
+    private MoveList[] buffers = new MoveList[0];
+
+    public Perft(ChessGame game) {
+        this(copyOf(game.getBoard()), game.getTeamTurn());
+    }
+
+    private Perft(ChessBoard board, ChessGame.TeamColor sideToMove) {
+        this.board = board;
+        this.sideToMove = sideToMove;
+    }
+
+    /**
+     * @return number of leaf nodes depth plies below the position
+     */
+    public long count(int depth) {
+        ensureBuffers(depth);
+        return count(sideToMove, depth);
+    }
+
+    /**
+     * Counts leaf nodes on a fork/join pool. The root moves, and the replies to
+     * them from depth 4 on, are split into tasks that each search their own
+     * copy of the board.
+     *
+     * @return number of leaf nodes depth plies below the position
+     */
+    public long countParallel(int depth, ForkJoinPool pool) {
+        int splitPlies = depth >= 4 ? 2 : 1;
+        return pool.invoke(new PerftTask(copyOf(board), sideToMove, depth, splitPlies));
+    }
+
+    /**
+     * @return leaf node count below each legal root move, in generation order
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        ensureBuffers(depth);
+        Map<ChessMove, Long> result = new LinkedHashMap<>();
+        if (depth < 1) {
+            return result;
+        }
+
+        MoveList moves = new MoveList();
+        new LegalMoveGenerator(board, sideToMove).generate(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int undo = board.makeMove(move);
+            result.put(PackedMove.toChessMove(move), count(opponent(sideToMove), depth - 1));
+            board.unmakeMove(move, undo);
+        }
+        return result;
+    }
+
+    private long count(ChessGame.TeamColor side, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        MoveList moves = buffers[depth];
+        moves.clear();
+        new LegalMoveGenerator(board, side).generate(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        ChessGame.TeamColor next = opponent(side);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int undo = board.makeMove(move);
+            nodes += count(next, depth - 1);
+            board.unmakeMove(move, undo);
+        }
+        return nodes;
+    }
+
+    private void ensureBuffers(int depth) {
+        if (buffers.length > depth) {
+            return;
+        }
+        buffers = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            buffers[i] = new MoveList();
+        }
+    }
+
+    private static ChessBoard copyOf(ChessBoard board) {
+        ChessBoard copy = new ChessBoard();
+        copy.setBoard(board.getBoard());
+        return copy;
+    }
+
+    // Fork/join tasks are never serialized
+    @SuppressWarnings("serial")
+    private static final class PerftTask extends RecursiveTask<Long> {
+        private final ChessBoard board;
+        private final ChessGame.TeamColor side;
+        private final int depth;
+        private final int splitPlies;
+
+        PerftTask(ChessBoard board, ChessGame.TeamColor side, int depth, int splitPlies) {
+            this.board = board;
+            this.side = side;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitPlies == 0 || depth < 2) {
+                return new Perft(board, side).count(depth);
+            }
+
+            MoveList moves = new MoveList();
+            new LegalMoveGenerator(board, side).generate(moves);
+            List<PerftTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                int undo = board.makeMove(move);
+                tasks.add(new PerftTask(copyOf(board), opponent(side), depth - 1, splitPlies - 1));
+                board.unmakeMove(move, undo);
+            }
+
+            long nodes = 0;
+            for (PerftTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: Perft <depth> [position] [--divide] [--threads <n>] | Perft --reference [depth]");
+            return;
+        }
+
+        if (args[0].equals("--reference")) {
+            int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : Integer.MAX_VALUE;
+            boolean allPassed = true;
+            for (ReferencePosition reference : REFERENCE_POSITIONS) {
+                allPassed &= runReference(reference, maxDepth);
+            }
+            System.out.println(allPassed ? "All reference counts match." : "Reference count mismatch!");
+            if (!allPassed) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        String position = "start";
+        boolean divide = false;
+        int threads = 0;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--divide")) {
+                divide = true;
+            } else if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                position = args[i];
+            }
+        }
+
+        Perft perft = new Perft(ChessGame.fromFen(resolvePosition(position)));
+        long start = System.nanoTime();
+        long nodes;
+        if (divide) {
+            nodes = 0;
+            for (Map.Entry<ChessMove, Long> entry : perft.divide(depth).entrySet()) {
+                System.out.println(formatMove(entry.getKey()) + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+            System.out.println();
+        } else {
+            nodes = perft.count(depth);
+        }
+        long singleThreadNanos = System.nanoTime() - start;
+        report(depth, nodes, singleThreadNanos);
+
+        if (threads > 0) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                start = System.nanoTime();
+                long parallelNodes = perft.countParallel(depth, pool);
+                long parallelNanos = System.nanoTime() - start;
+                System.out.println(threads + " threads:");
+                report(depth, parallelNodes, parallelNanos);
+                System.out.printf("  speedup %.2fx%n", (double) singleThreadNanos / parallelNanos);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static boolean runReference(ReferencePosition reference, int maxDepth) {
+        System.out.println(reference.name() + " (" + reference.fen() + ")");
+        Perft perft = new Perft(ChessGame.fromFen(reference.fen()));
+        boolean passed = true;
+
+        for (int depth = 1; depth <= Math.min(maxDepth, reference.nodes().length); depth++) {
+            long start = System.nanoTime();
+            long nodes = perft.count(depth);
+            long expected = reference.nodes()[depth - 1];
+            report(depth, nodes, System.nanoTime() - start);
+            if (nodes != expected) {
+                System.out.println("  expected " + expected);
+                passed = false;
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * @return the FEN of the reference position with the given name, or
+     * position itself if no reference position has that name
+     */
+    public static String resolvePosition(String position) {
+        for (ReferencePosition reference : REFERENCE_POSITIONS) {
+            if (reference.name().equals(position)) {
+                return reference.fen();
+            }
+        }
+        return position;
+    }
+
+    private static void report(int depth, long nodes, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long nodesPerSecond = seconds > 0 ? (long) (nodes / seconds) : 0;
+        System.out.printf("  depth %d: %,d nodes in %.3f s (%,d nodes/s)%n", depth, nodes, seconds, nodesPerSecond);
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. {@code e2e4} or {@code e7e8q}
+     */
+    public static String formatMove(ChessMove move) {
+        String text = square(move.getStartPosition()) + square(move.getEndPosition());
+        if (move.getPromotionPiece() != null) {
+            text += switch (move.getPromotionPiece()) {
+                case QUEEN -> "q";
+                case ROOK -> "r";
+                case BISHOP -> "b";
+                default -> "n";
+            };
+        }
+        return text;
+    }
+
+    private static String square(ChessPosition position) {
+        return String.valueOf((char) ('a' + position.getColumn() - 1)) + position.getRow();
+    }
+}
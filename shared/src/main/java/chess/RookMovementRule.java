@@ -1,19 +1,11 @@
 package chess;
 
-import java.util.Collection;
-import java.util.HashSet;
-
 public class RookMovementRule extends BaseMovementRule {
     @Override
-    public Collection<ChessMove> moves(ChessBoard board, ChessPosition position) {
-        var validMoves = new HashSet<ChessMove>();
-
-        int[][] directions = {
-                {1, 0}, {-1, 0}, {0, 1}, {0, -1}
-        };
-
-        calculateMoves(board, position, directions, validMoves, false);
+    public boolean forEachMove(ChessBoard board, int square, MoveSink sink) {
+        ChessPiece rook = board.getPiece(square);
 
-        return validMoves;
+        long own = board.getPieces(rook.getTeamColor());
+        return MoveSink.acceptTargets(sink, square, Attacks.rookAttacks(square, board.getOccupied()) & ~own, Bitboards.EMPTY);
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist position hashing. A position's key is the XOR of
+ * the key of every piece on its square, plus {@link #BLACK_TO_MOVE} when it
+ * is black's turn, so it can be updated incrementally as pieces move.
+ * <p>
+ * The keys come from a fixed seed, so they are the same in every JVM and can
+ * be stored or sent between client and server.
+ */
+public final class Zobrist {
+    public static final long BLACK_TO_MOVE;
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x240C4E55L);
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                PIECE_SQUARE[piece][square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {}
+
+    /**
+     * @param pieceIndex piece index as given by {@link Bitboards#pieceIndex}
+     * @param square     square number 0-63
+     * @return the key for that piece standing on that square
+     */
+    public static long pieceKey(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    public static long sideKey(ChessGame.TeamColor sideToMove) {
+        return sideToMove == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+}
@@ -0,0 +1,70 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Static evaluation for {@link Searcher}: material plus small bonuses for
+ * centralized minor pieces and advanced pawns, in centipawns.
+ */
+public final class Evaluator {
+    private static final int[] PIECE_VALUES = new int[ChessPiece.PieceType.values().length];
+
+    // Bonus for a knight or bishop on each square, highest in the center
+    private static final int[] CENTRALITY = new int[64];
+
+    static {
+        PIECE_VALUES[ChessPiece.PieceType.KING.ordinal()] = 0;
+        PIECE_VALUES[ChessPiece.PieceType.QUEEN.ordinal()] = 900;
+        PIECE_VALUES[ChessPiece.PieceType.ROOK.ordinal()] = 500;
+        PIECE_VALUES[ChessPiece.PieceType.BISHOP.ordinal()] = 330;
+        PIECE_VALUES[ChessPiece.PieceType.KNIGHT.ordinal()] = 320;
+        PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()] = 100;
+
+        for (int square = 0; square < 64; square++) {
+            int rowDistance = Math.min(Bitboards.row(square) - 1, 8 - Bitboards.row(square));
+            int colDistance = Math.min(Bitboards.column(square) - 1, 8 - Bitboards.column(square));
+            CENTRALITY[square] = 5 * Math.min(rowDistance, colDistance) + 2 * (rowDistance + colDistance);
+        }
+    }
+
+    private Evaluator() {}
+
+    /**
+     * @return material value of a piece type in centipawns, 0 for the king
+     */
+    public static int pieceValue(ChessPiece.PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+
+    /**
+     * @return score of the position from side's point of view, positive when side is ahead
+     */
+    public static int evaluate(ChessBoard board, ChessGame.TeamColor side) {
+        int score = evaluateColor(board, ChessGame.TeamColor.WHITE) - evaluateColor(board, ChessGame.TeamColor.BLACK);
+        return side == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    private static int evaluateColor(ChessBoard board, ChessGame.TeamColor color) {
+        int score = 0;
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            long pieces = board.getPieces(color, type);
+            score += Bitboards.count(pieces) * PIECE_VALUES[type.ordinal()];
+
+            if (type == ChessPiece.PieceType.KNIGHT || type == ChessPiece.PieceType.BISHOP) {
+                for (; pieces != 0; pieces = Bitboards.clearFirst(pieces)) {
+                    score += CENTRALITY[Bitboards.firstSquare(pieces)];
+                }
+            } else if (type == ChessPiece.PieceType.PAWN) {
+                for (; pieces != 0; pieces = Bitboards.clearFirst(pieces)) {
+                    int row = Bitboards.row(Bitboards.firstSquare(pieces));
+                    int advance = color == ChessGame.TeamColor.WHITE ? row - 2 : 7 - row;
+                    score += advance * advance * 2;
+                }
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,198 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Perft;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a {@link Searcher} on several threads at once with Lazy SMP: every
+ * thread searches the same root and they share one
+ * {@link TranspositionTable}, so each thread's results speed up the others.
+ * Odd-numbered helper threads search one ply deeper on each iteration, which
+ * spreads the threads over different parts of the tree.
+ * <p>
+ * The calling thread runs the main search, and the helpers are stopped once
+ * it finishes. The result is from whichever thread completed the deepest
+ * iteration, preferring the main search, with the nodes of all threads
+ * added up. A node limit counts only the main search's nodes.
+ * <p>
+ * With one thread this is a plain {@link Searcher} on the calling thread, so
+ * results are deterministic for a given table state. With more threads they
+ * depend on timing.
+ * <p>
+ * Run from the command line with
+ * {@code java -cp shared.jar chess.engine.ParallelSearcher <depth> [position] [--threads <n>]}
+ * to compare 1, 2, 4, ... up to n threads on a position, reporting nodes per
+ * second and speedup over one thread.
+ */
+public class ParallelSearcher {
+    private static final int BENCHMARK_TABLE_MEGABYTES = 64;
+
+    private final TranspositionTable table;
+    private final Searcher[] searchers;
+
+    /**
+     * @param threads number of threads to search with, including the calling thread
+     * @param table   transposition table shared by all threads
+     */
+    public ParallelSearcher(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.table = table;
+        this.searchers = new Searcher[threads];
+        for (int i = 0; i < threads; i++) {
+            searchers[i] = new Searcher(table);
+        }
+    }
+
+    public ParallelSearcher(int threads) {
+        this(threads, new TranspositionTable());
+    }
+
+    public int getThreads() {
+        return searchers.length;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Searches the position of game for the team whose turn it is, returning
+     * once the main search reaches one of its limits
+     *
+     * @param game   the game to search; it is not modified
+     * @param limits when to stop
+     * @return the best move found and its score
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        if (searchers.length == 1) {
+            return searchers[0].search(game, limits);
+        }
+
+        long start = System.nanoTime();
+        table.newSearch();
+        SearchLimits helperLimits = new SearchLimits(limits.maxDepth(), 0, limits.maxMillis());
+        SearchResult[] results = new SearchResult[searchers.length];
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] helpers = new Thread[searchers.length - 1];
+        for (int i = 1; i < searchers.length; i++) {
+            int id = i;
+            helpers[i - 1] = new Thread(() -> {
+                try {
+                    results[id] = searchers[id].search(game, helperLimits, id % 2, false);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                    // Stop the others rather than waiting out the main search
+                    stop();
+                }
+            }, "search-helper-" + i);
+            helpers[i - 1].setDaemon(true);
+        }
+        // Clear earlier stop requests before any thread starts, so a stop
+        // from the main thread can never be lost
+        for (Searcher searcher : searchers) {
+            searcher.resume();
+        }
+        for (Thread helper : helpers) {
+            helper.start();
+        }
+
+        try {
+            results[0] = searchers[0].search(game, limits, 0, false);
+        } finally {
+            stop();
+            joinAll(helpers);
+        }
+        // A helper that failed left no result, so its failure is the outcome
+        Throwable helperFailure = failure.get();
+        if (helperFailure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (helperFailure instanceof Error e) {
+            throw e;
+        }
+        if (helperFailure != null) {
+            throw new IllegalStateException("Search helper failed", helperFailure);
+        }
+
+        SearchResult best = results[0];
+        long nodes = 0;
+        for (SearchResult result : results) {
+            nodes += result.nodes();
+            if (result.depth() > best.depth() && result.bestMove() != null) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search on every thread to stop soon. May be called from
+     * any thread.
+     */
+    public void stop() {
+        for (Searcher searcher : searchers) {
+            searcher.stop();
+        }
+    }
+
+    private static void joinAll(Thread[] threads) {
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: ParallelSearcher <depth> [position] [--threads <n>]");
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        String position = "start";
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--threads")) {
+                maxThreads = Integer.parseInt(args[++i]);
+            } else {
+                position = args[i];
+            }
+        }
+        ChessGame game = ChessGame.fromFen(Perft.resolvePosition(position));
+        // Let the JIT compile the search first so the one-thread baseline is fair
+        new Searcher(new TranspositionTable(BENCHMARK_TABLE_MEGABYTES)).search(game, SearchLimits.depth(depth));
+
+        long singleThreadNanos = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            ParallelSearcher searcher = new ParallelSearcher(threads, new TranspositionTable(BENCHMARK_TABLE_MEGABYTES));
+            SearchResult result = searcher.search(game, SearchLimits.depth(depth));
+            if (threads == 1) {
+                singleThreadNanos = result.elapsedNanos();
+            }
+
+            System.out.printf("%d thread%s: best %s score %d at depth %d%n", threads, threads == 1 ? "" : "s",
+                    result.bestMove() == null ? "none" : Perft.formatMove(result.bestMove()), result.score(), result.depth());
+            System.out.printf("  %,d nodes in %.3f s (%,d nodes/s), speedup %.2fx%n", result.nodes(),
+                    result.elapsedNanos() / 1e9, result.nodesPerSecond(), (double) singleThreadNanos / result.elapsedNanos());
+        }
+    }
+
+    private static int nextThreadCount(int threads, int maxThreads) {
+        return threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1;
+    }
+}
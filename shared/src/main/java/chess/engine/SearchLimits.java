@@ -0,0 +1,25 @@
+package chess.engine;
+
+/**
+ * Hard limits on a {@link Searcher} run. The search stops as soon as any
+ * limit is reached; a limit of 0 or less leaves that dimension unbounded,
+ * except that depth is always capped at {@link Searcher#MAX_DEPTH}.
+ *
+ * @param maxDepth  deepest iteration to search, in plies
+ * @param maxNodes  most nodes to visit across all iterations
+ * @param maxMillis most wall-clock time to spend, in milliseconds
+ */
+public record SearchLimits(int maxDepth, long maxNodes, long maxMillis) {
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, maxNodes, 0);
+    }
+
+    public static SearchLimits millis(long maxMillis) {
+        return new SearchLimits(0, 0, maxMillis);
+    }
+}
@@ -0,0 +1,23 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * Outcome of a {@link Searcher} run.
+ *
+ * @param bestMove     best move found, or null if the side to move has no legal moves
+ * @param score        score of the position in centipawns for the side to move,
+ *                     assuming best play; see {@link Searcher#isMateScore(int)}
+ * @param depth        deepest iteration that completed
+ * @param nodes        nodes visited, including quiescence nodes
+ * @param elapsedNanos wall-clock time spent
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long elapsedNanos) {
+
+    /**
+     * @return nodes searched per second
+     */
+    public long nodesPerSecond() {
+        return elapsedNanos > 0 ? (long) (nodes * 1e9 / elapsedNanos) : 0;
+    }
+}
@@ -0,0 +1,437 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.LegalMoveGenerator;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.Zobrist;
+
+/**
+ * Finds the best move for the side to move with an iterative deepening
+ * negamax alpha-beta search, a quiescence search over captures and
+ * promotions, and hash move, MVV-LVA and killer move ordering. Results are
+ * kept in a {@link TranspositionTable} so transpositions and later
+ * iterations reuse earlier work.
+ * <p>
+ * A search works on its own copy of the game's board, so the game is never
+ * changed. A Searcher keeps per-search buffers and is not thread-safe; use
+ * one instance per thread to run searches concurrently. Those instances may
+ * share one table, which is how {@link ParallelSearcher} runs them.
+ */
+public class Searcher {
+    public static final int MAX_DEPTH = 64;
+    public static final int MATE_SCORE = 30000;
+
+    private static final int INFINITY = 32000;
+    // Deepest ply reached including quiescence, which bounds the mate scores
+    private static final int MAX_PLY = 128;
+    private static final int MAX_MOVES = 256;
+    private static final int LIMIT_CHECK_MASK = 2047;
+
+    private static final int HASH_MOVE_SCORE = 200_000;
+    private static final int CAPTURE_SCORE = 100_000;
+    private static final int PROMOTION_SCORE = 90_000;
+    private static final int FIRST_KILLER_SCORE = 80_000;
+    private static final int SECOND_KILLER_SCORE = 79_000;
+
+    private final MoveList generated = new MoveList(MAX_MOVES);
+    private final int[][] plyMoves = new int[MAX_PLY + 1][MAX_MOVES];
+    private final int[][] plyScores = new int[MAX_PLY + 1][MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final long[] pathKeys = new long[MAX_PLY + 1];
+    private final TranspositionTable table;
+
+    private ChessBoard board;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+
+    public Searcher() {
+        this(new TranspositionTable());
+    }
+
+    /**
+     * @param table transposition table to read and fill, which may be shared
+     *              with other Searchers
+     */
+    public Searcher(TranspositionTable table) {
+        this.table = table;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Searches the position of game for the team whose turn it is
+     *
+     * @param game   the game to search; it is not modified
+     * @param limits when to stop
+     * @return the best move found and its score
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        resume();
+        return search(game, limits, 0, true);
+    }
+
+    /**
+     * Asks a running search to stop soon and return its best move so far.
+     * May be called from any thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Clears an earlier {@link #stop()} request
+     */
+    void resume() {
+        stopRequested = false;
+    }
+
+    /**
+     * Searches without clearing an earlier {@link #stop()} request
+     *
+     * @param depthOffset   plies added to every iteration's depth, so the
+     *                      search skips that many shallow iterations
+     * @param newGeneration whether to start a new table generation
+     */
+    SearchResult search(ChessGame game, SearchLimits limits, int depthOffset, boolean newGeneration) {
+        long start = System.nanoTime();
+        board = new ChessBoard();
+        board.setBoard(game.getBoard().getBoard());
+        ChessGame.TeamColor side = game.getTeamTurn();
+
+        nodes = 0;
+        stopped = false;
+        maxNodes = limits.maxNodes() > 0 ? limits.maxNodes() : Long.MAX_VALUE;
+        deadline = limits.maxMillis() > 0 ? start + limits.maxMillis() * 1_000_000 : Long.MAX_VALUE;
+        int maxDepth = limits.maxDepth() > 0 ? Math.min(limits.maxDepth(), MAX_DEPTH) : MAX_DEPTH;
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = PackedMove.NONE;
+            plyKillers[1] = PackedMove.NONE;
+        }
+        if (newGeneration) {
+            table.newSearch();
+        }
+
+        pathKeys[0] = positionKey(side);
+        int hashMove = TranspositionTable.move(table.probe(pathKeys[0]));
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, side);
+        int rootCount = collectMoves(generator, 0, false, hashMove);
+        if (rootCount == 0) {
+            int score = generator.inCheck() ? -MATE_SCORE : 0;
+            return new SearchResult(null, score, 0, 0, System.nanoTime() - start);
+        }
+
+        int[] rootMoves = new int[rootCount];
+        for (int i = 0; i < rootCount; i++) {
+            rootMoves[i] = pickNext(0, i, rootCount);
+        }
+
+        int bestMove = rootMoves[0];
+        int bestScore = -INFINITY;
+        int completedDepth = 0;
+        for (int depth = Math.min(1 + depthOffset, maxDepth); depth <= maxDepth; depth++) {
+            int alpha = -INFINITY;
+            int iterationMove = PackedMove.NONE;
+
+            for (int i = 0; i < rootCount; i++) {
+                int move = rootMoves[i];
+                int undo = board.makeMove(move);
+                int score = -negamax(depth - 1, -INFINITY, -alpha, 1, opponent(side));
+                board.unmakeMove(move, undo);
+                if (stopped) {
+                    break;
+                }
+
+                if (score > alpha) {
+                    alpha = score;
+                    iterationMove = move;
+                    // Search the best move so far first in the next iteration
+                    System.arraycopy(rootMoves, 0, rootMoves, 1, i);
+                    rootMoves[0] = move;
+                }
+            }
+
+            if (iterationMove != PackedMove.NONE) {
+                bestMove = iterationMove;
+                bestScore = alpha;
+            }
+            if (stopped) {
+                break;
+            }
+            completedDepth = depth;
+            table.store(pathKeys[0], bestMove, toTableScore(bestScore, 0), depth, TranspositionTable.BOUND_EXACT);
+            if (isMateScore(bestScore)) {
+                break;
+            }
+        }
+
+        if (bestScore == -INFINITY) {
+            bestScore = Evaluator.evaluate(board, side);
+        }
+        return new SearchResult(PackedMove.toChessMove(bestMove), bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * @return true if score means a forced mate, for either side
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE_SCORE - MAX_PLY;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply, ChessGame.TeamColor side) {
+        if (depth <= 0) {
+            return quiesce(alpha, beta, ply, side);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        long key = positionKey(side);
+        pathKeys[ply] = key;
+        if (isRepetition(ply, key)) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return Evaluator.evaluate(board, side);
+        }
+
+        long entry = table.probe(key);
+        int hashMove = TranspositionTable.move(entry);
+        if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTableScore(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.BOUND_EXACT
+                    || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                    || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, side);
+        int count = collectMoves(generator, ply, false, hashMove);
+        if (count == 0) {
+            return generator.inCheck() ? -MATE_SCORE + ply : 0;
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(ply, i, count);
+            boolean quiet = isQuiet(move);
+
+            int undo = board.makeMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1, opponent(side));
+            board.unmakeMove(move, undo);
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    if (alpha >= beta) {
+                        if (quiet) {
+                            storeKiller(ply, move);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                : best > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(key, bestMove, toTableScore(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiesce(int alpha, int beta, int ply, ChessGame.TeamColor side) {
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return Evaluator.evaluate(board, side);
+        }
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, side);
+        boolean inCheck = generator.inCheck();
+        int best = -INFINITY;
+        if (!inCheck) {
+            // Standing pat: the side to move can usually do at least as well as the static score
+            best = Evaluator.evaluate(board, side);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        // In check every evasion is searched, otherwise only captures and promotions
+        int count = collectMoves(generator, ply, !inCheck, PackedMove.NONE);
+        if (inCheck && count == 0) {
+            return -MATE_SCORE + ply;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(ply, i, count);
+            int undo = board.makeMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1, opponent(side));
+            board.unmakeMove(move, undo);
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Generates the legal moves at ply into that ply's buffers with their
+     * ordering scores, placing hashMove first if it is among them
+     *
+     * @return number of moves collected
+     */
+    private int collectMoves(LegalMoveGenerator generator, int ply, boolean tacticalOnly, int hashMove) {
+        generated.clear();
+        generator.generate(generated);
+
+        int[] moves = plyMoves[ply];
+        int[] scores = plyScores[ply];
+        int count = 0;
+        for (int i = 0; i < generated.size(); i++) {
+            int move = generated.get(i);
+            if (tacticalOnly && isQuiet(move)) {
+                continue;
+            }
+            moves[count] = move;
+            scores[count] = move == hashMove ? HASH_MOVE_SCORE : orderScore(move, ply);
+            count++;
+        }
+        return count;
+    }
+
+    private int orderScore(int move, int ply) {
+        int score = 0;
+        ChessPiece victim = board.getPiece(PackedMove.to(move));
+        if (victim != null) {
+            // Most valuable victim first, then least valuable attacker
+            ChessPiece attacker = board.getPiece(PackedMove.from(move));
+            score += CAPTURE_SCORE + Evaluator.pieceValue(victim.getPieceType()) * 10
+                    - Evaluator.pieceValue(attacker.getPieceType()) / 10;
+        }
+
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion != null) {
+            score += PROMOTION_SCORE + Evaluator.pieceValue(promotion);
+        } else if (victim == null) {
+            if (move == killers[ply][0]) {
+                score = FIRST_KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                score = SECOND_KILLER_SCORE;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Swaps the highest scoring remaining move into position index and returns it
+     */
+    private int pickNext(int ply, int index, int count) {
+        int[] moves = plyMoves[ply];
+        int[] scores = plyScores[ply];
+
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+
+        int move = moves[best];
+        moves[best] = moves[index];
+        moves[index] = move;
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private boolean isQuiet(int move) {
+        return PackedMove.promotion(move) == null && !Bitboards.isSet(board.getOccupied(), PackedMove.to(move));
+    }
+
+    /**
+     * Counts a node against the node budget, checking the clock and any stop
+     * request every few thousand nodes
+     *
+     * @return true if the search has been stopped
+     */
+    private boolean countNode() {
+        if (++nodes >= maxNodes
+                || ((nodes & LIMIT_CHECK_MASK) == 0 && (stopRequested || System.nanoTime() >= deadline))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private boolean isRepetition(int ply, long key) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (pathKeys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mate scores count plies from the root; the table stores them counted
+     * from the node instead so they stay correct when reached at another ply
+     */
+    private static int toTableScore(int score, int ply) {
+        if (isMateScore(score)) {
+            return score > 0 ? score + ply : score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (isMateScore(score)) {
+            return score > 0 ? score - ply : score + ply;
+        }
+        return score;
+    }
+
+    private long positionKey(ChessGame.TeamColor side) {
+        return board.getZobristKey() ^ Zobrist.sideKey(side);
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
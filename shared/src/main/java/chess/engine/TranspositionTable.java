@@ -0,0 +1,181 @@
+package chess.engine;
+
+import chess.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of search results keyed by position key, kept in one
+ * {@code long[]} so it holds millions of entries without a single object per
+ * entry.
+ * <p>
+ * Each entry takes two longs: the position key XORed with the data, and the
+ * data itself. The data packs the best move, score, depth, bound and the
+ * search generation that wrote it. Entries are written and read without
+ * locks, so a reader can see one word from one write and the other word from
+ * another; such a torn entry fails the XOR check and is treated as a miss.
+ * Several {@link Searcher}s can therefore share one table across threads.
+ * <p>
+ * Entries are grouped in buckets of two. A store replaces the entry for the
+ * same position if there is one, otherwise the entry whose depth, less a
+ * penalty for each search generation it has aged, is lowest.
+ */
+public class TranspositionTable {
+    public static final int DEFAULT_MEGABYTES = 16;
+    public static final int MAX_MEGABYTES = 8192;
+
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_UPPER = 3;
+
+    private static final int BUCKET_ENTRIES = 2;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int ENTRY_BYTES = LONGS_PER_ENTRY * Long.BYTES;
+
+    // Data layout: bits 0-15 move, 16-31 score, 32-39 depth, 40-41 bound, 48-55 generation
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int GENERATION_SHIFT = 48;
+    private static final int GENERATION_MASK = 0xFF;
+    private static final int AGE_PENALTY = 4;
+
+    private final long[] table;
+    private final long bucketMask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes memory to use; rounded down to a power of two entries
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+            throw new IllegalArgumentException("Table size must be between 1 and " + MAX_MEGABYTES + " MB: " + megabytes);
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        this.table = new long[(int) (entries * LONGS_PER_ENTRY)];
+        this.bucketMask = entries / BUCKET_ENTRIES - 1;
+    }
+
+    public TranspositionTable() {
+        this(DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @return the packed entry data, or 0 if the position is not stored; read
+     * it with {@link #move}, {@link #score}, {@link #depth} and {@link #bound}
+     */
+    public long probe(long key) {
+        int index = bucketIndex(key);
+        for (int i = 0; i < BUCKET_ENTRIES; i++, index += LONGS_PER_ENTRY) {
+            long data = table[index + 1];
+            if ((table[index] ^ data) == key) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a search result for a position
+     *
+     * @param move  best move found as a packed move, or {@link PackedMove#NONE}
+     *              to keep any move already stored for the position
+     * @param score score within a 16-bit signed range
+     * @param depth remaining depth the score was searched to
+     * @param bound one of {@link #BOUND_EXACT}, {@link #BOUND_LOWER} or {@link #BOUND_UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int current = generation;
+        int bucket = bucketIndex(key);
+        int target = bucket;
+        int lowestWorth = Integer.MAX_VALUE;
+
+        for (int i = 0, index = bucket; i < BUCKET_ENTRIES; i++, index += LONGS_PER_ENTRY) {
+            long data = table[index + 1];
+            if ((table[index] ^ data) == key) {
+                if (move == PackedMove.NONE) {
+                    move = move(data);
+                }
+                target = index;
+                break;
+            }
+
+            int age = (current - generation(data)) & GENERATION_MASK;
+            int worth = data == 0 ? Integer.MIN_VALUE : depth(data) - AGE_PENALTY * age;
+            if (worth < lowestWorth) {
+                lowestWorth = worth;
+                target = index;
+            }
+        }
+
+        long data = (move & 0xFFFFL)
+                | (score & 0xFFFFL) << SCORE_SHIFT
+                | (long) (Math.max(depth, 0) & 0xFF) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) current << GENERATION_SHIFT;
+        table[target] = key ^ data;
+        table[target + 1] = data;
+    }
+
+    /**
+     * Starts a new search generation, so entries from earlier searches are
+     * replaced before those of the current one
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+
+    /**
+     * @return number of entries the table holds
+     */
+    public int capacity() {
+        return table.length / LONGS_PER_ENTRY;
+    }
+
+    /**
+     * @return permille of a sample of entries written in the current generation
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int current = generation;
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = table[i * LONGS_PER_ENTRY + 1];
+            if (data != 0 && generation(data) == current) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    private int bucketIndex(long key) {
+        return (int) (key & bucketMask) * BUCKET_ENTRIES * LONGS_PER_ENTRY;
+    }
+}
@@ -0,0 +1,26 @@
+package json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import websocket.messages.ServerMessage;
+import websocket.messages.ServerMessageDeserializer;
+
+/**
+ * The Gson instance shared by the server, client and data access code.
+ * <p>
+ * The chess model classes carry their own streaming adapters through
+ * {@code @JsonAdapter}; this instance also reads server messages back as
+ * their concrete types. Gson is thread-safe, so one instance serves every
+ * caller instead of each building its own.
+ */
+public final class Serializer {
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(ServerMessage.class, new ServerMessageDeserializer())
+            .create();
+
+    private Serializer() {}
+
+    public static Gson gson() {
+        return GSON;
+    }
+}
@@ -1,5 +1,6 @@
 package websocket.messages;
 
+import chess.ChessGameCodec;
 import model.GameData;
 
 import java.util.Objects;
@@ -7,15 +8,34 @@ import java.util.Objects;
 public class LoadGameMessage extends ServerMessage {
     private final GameData game;
     private final String role;
+    // Base64 ChessGameCodec form of game's chessGame, sent in its place when set
+    private final String encodedGame;
 
     public LoadGameMessage(GameData game, String role) {
+        this(game, role, false);
+    }
+
+    /**
+     * @param binaryGame send the chess game in its compact binary form instead of as JSON
+     */
+    public LoadGameMessage(GameData game, String role, boolean binaryGame) {
         super(ServerMessageType.LOAD_GAME);
-        this.game = game;
+        if (binaryGame && game.chessGame() != null) {
+            this.game = new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), null);
+            this.encodedGame = ChessGameCodec.toBase64(game.chessGame());
+        } else {
+            this.game = game;
+            this.encodedGame = null;
+        }
         this.role = role;
     }
 
     public GameData getGame() {
-        return game;
+        if (encodedGame == null) {
+            return game;
+        }
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                ChessGameCodec.fromBase64(encodedGame));
     }
 
     public String getRole() {
@@ -37,11 +57,11 @@ public class LoadGameMessage extends ServerMessage {
         }
 
         LoadGameMessage that = (LoadGameMessage) o;
-        return Objects.equals(getGame(), that.getGame());
+        return Objects.equals(game, that.game) && Objects.equals(encodedGame, that.encodedGame);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), getGame());
+        return Objects.hash(super.hashCode(), game, encodedGame);
     }
 }
\ No newline at end of file
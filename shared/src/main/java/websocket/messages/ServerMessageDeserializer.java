@@ -14,11 +14,11 @@ public class ServerMessageDeserializer implements JsonDeserializer<ServerMessage
 
         switch (serverMessageType) {
             case NOTIFICATION:
-                return new Gson().fromJson(jsonObject, NotificationMessage.class);
+                return context.deserialize(jsonObject, NotificationMessage.class);
             case ERROR:
-                return new Gson().fromJson(jsonObject, ErrorMessage.class);
+                return context.deserialize(jsonObject, ErrorMessage.class);
             case LOAD_GAME:
-                return new Gson().fromJson(jsonObject, LoadGameMessage.class);
+                return context.deserialize(jsonObject, LoadGameMessage.class);
             default:
                 throw new JsonParseException("Unknown server message type: " + serverMessageType);
         }
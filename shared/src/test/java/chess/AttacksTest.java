@@ -0,0 +1,61 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttacksTest {
+    private static final int[][] ROOK_STEPS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_STEPS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    @Test
+    void slidingAttacksMatchRayWalk() {
+        Random random = new Random(240);
+        for (int i = 0; i < 2000; i++) {
+            long occupied = random.nextLong() & random.nextLong();
+            for (int square = 0; square < 64; square++) {
+                assertEquals(walk(square, occupied, ROOK_STEPS), Attacks.rookAttacks(square, occupied));
+                assertEquals(walk(square, occupied, BISHOP_STEPS), Attacks.bishopAttacks(square, occupied));
+            }
+        }
+    }
+
+    @Test
+    void leaperTables() {
+        assertEquals(Bitboards.bit(Bitboards.square(2, 3)) | Bitboards.bit(Bitboards.square(3, 2)),
+                Attacks.knightAttacks(Bitboards.square(1, 1)));
+        assertEquals(8, Bitboards.count(Attacks.kingAttacks(Bitboards.square(4, 4))));
+        assertEquals(Bitboards.bit(Bitboards.square(3, 2)),
+                Attacks.pawnAttacks(ChessGame.TeamColor.WHITE, Bitboards.square(2, 1)));
+        assertEquals(0, Attacks.pawnPushes(ChessGame.TeamColor.BLACK, Bitboards.square(1, 4)));
+    }
+
+    @Test
+    void betweenAndLine() {
+        int a1 = Bitboards.square(1, 1);
+        int d4 = Bitboards.square(4, 4);
+        assertEquals(Bitboards.bit(Bitboards.square(2, 2)) | Bitboards.bit(Bitboards.square(3, 3)), Attacks.between(a1, d4));
+        assertEquals(8, Bitboards.count(Attacks.line(a1, d4)));
+        assertEquals(0, Attacks.between(a1, Bitboards.square(2, 3)));
+    }
+
+    private static long walk(int square, long occupied, int[][] steps) {
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int row = Bitboards.row(square) + step[0];
+            int col = Bitboards.column(square) + step[1];
+            while (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                long bit = Bitboards.bit(Bitboards.square(row, col));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += step[0];
+                col += step[1];
+            }
+        }
+        return attacks;
+    }
+}
@@ -0,0 +1,119 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import json.Serializer;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.ServerMessage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessAdapterTest {
+    private final Gson gson = new Gson();
+
+    @Test
+    void positionKeepsWireFormat() {
+        assertEquals("{\"row\":2,\"col\":3}", gson.toJson(new ChessPosition(2, 3)));
+        assertSame(ChessPosition.of(2, 3), gson.fromJson("{\"col\":3,\"row\":2}", ChessPosition.class));
+    }
+
+    @Test
+    void pieceKeepsWireFormat() {
+        ChessPiece piece = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+
+        assertEquals("{\"teamColor\":\"BLACK\",\"pieceType\":\"KNIGHT\"}", gson.toJson(piece));
+        assertSame(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
+                gson.fromJson(gson.toJson(piece), ChessPiece.class));
+    }
+
+    @Test
+    void rejectsIncompletePieces() {
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"teamColor\":\"WHITE\"}", ChessPiece.class));
+        assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"teamColor\":null,\"pieceType\":\"ROOK\"}", ChessPiece.class));
+        assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"teamColor\":\"RED\",\"pieceType\":\"ROOK\"}", ChessPiece.class));
+        assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"teamColor\":\"WHITE\",\"pieceType\":\"DRAGON\"}", ChessPiece.class));
+    }
+
+    @Test
+    void deserializedMoveUsesSharedPositions() {
+        ChessMove move = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN);
+        ChessMove copy = gson.fromJson(gson.toJson(move), ChessMove.class);
+
+        assertEquals(move, copy);
+        assertSame(ChessPosition.of(7, 1), copy.getStartPosition());
+        assertSame(ChessPosition.of(8, 1), copy.getEndPosition());
+    }
+
+    @Test
+    void deserializedBoardUsesSharedPieces() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard copy = gson.fromJson(gson.toJson(board), ChessBoard.class);
+
+        assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN), copy.getPiece(new ChessPosition(1, 4)));
+    }
+
+    @Test
+    void moveKeepsWireFormat() {
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+
+        assertEquals("{\"startPosition\":{\"row\":2,\"col\":5},\"endPosition\":{\"row\":4,\"col\":5}}", gson.toJson(move));
+        assertEquals(move, gson.fromJson("{\"endPosition\":{\"row\":4,\"col\":5},\"promotionPiece\":null,"
+                + "\"startPosition\":{\"row\":2,\"col\":5}}", ChessMove.class));
+    }
+
+    @Test
+    void boardKeepsWireFormat() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        String json = gson.toJson(board);
+
+        assertTrue(json.startsWith("{\"squares\":[[null,{\"teamColor\":\"WHITE\",\"pieceType\":\"KING\"},null,"));
+        ChessBoard copy = gson.fromJson(json, ChessBoard.class);
+        assertEquals(board, copy);
+        assertEquals(Bitboards.square(1, 2), copy.getKingSquare(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void gameRoundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        String json = gson.toJson(game);
+
+        assertTrue(json.startsWith("{\"teamTurn\":\"BLACK\",\"board\":{\"squares\":["));
+        assertEquals(game.toFen(), gson.fromJson(json, ChessGame.class).toFen());
+        assertEquals(ChessGame.TeamColor.WHITE,
+                gson.fromJson("{\"board\":" + gson.toJson(game.getBoard()) + ",\"extra\":[1]}", ChessGame.class).getTeamTurn());
+    }
+
+    @Test
+    void rejectsCorruptedHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        String json = gson.toJson(game);
+        String undos = "\"undos\":[" + game.getHistory().undoEntry(0) + "]";
+        assertTrue(json.contains(undos));
+
+        assertThrows(JsonParseException.class, () -> gson.fromJson(json.replace(undos, "\"undos\":[15]"), ChessGame.class));
+        assertThrows(JsonParseException.class, () -> gson.fromJson(json.replace(undos, "\"undos\":[]"), ChessGame.class));
+    }
+
+    @Test
+    void sharedGsonReadsLoadGameMessages() {
+        GameData gameData = new GameData(7, "white", null, "game", new ChessGame());
+
+        for (boolean binaryGame : new boolean[]{false, true}) {
+            String json = Serializer.gson().toJson(new LoadGameMessage(gameData, "WHITE", binaryGame));
+            ServerMessage message = Serializer.gson().fromJson(json, ServerMessage.class);
+
+            LoadGameMessage loadGame = assertInstanceOf(LoadGameMessage.class, message);
+            assertEquals(7, loadGame.getGame().gameID());
+            assertEquals(new ChessGame().toFen(), loadGame.getGame().chessGame().toFen());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessBoardTest {
+    private ChessBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new ChessBoard();
+        board.resetBoard();
+    }
+
+    @Test
+    void resetBoardBitboards() {
+        assertEquals(0x000000000000FFFFL, board.getPieces(ChessGame.TeamColor.WHITE));
+        assertEquals(0xFFFF000000000000L, board.getPieces(ChessGame.TeamColor.BLACK));
+        assertEquals(0xFFFF00000000FFFFL, board.getOccupied());
+        assertEquals(Bitboards.bit(Bitboards.square(1, 5)),
+                board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+    }
+
+    @Test
+    void movePieceUpdatesBitboards() {
+        board.movePiece(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        long pawns = board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        assertFalse(Bitboards.isSet(pawns, Bitboards.square(2, 5)));
+        assertTrue(Bitboards.isSet(pawns, Bitboards.square(4, 5)));
+        assertEquals(32, Bitboards.count(board.getOccupied()));
+    }
+
+    @Test
+    void captureRemovesCapturedPiece() {
+        board.addPiece(new ChessPosition(3, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        board.movePiece(new ChessMove(new ChessPosition(2, 5), new ChessPosition(3, 4), null));
+
+        assertEquals(0, board.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT) & Bitboards.bit(Bitboards.square(3, 4)));
+        assertEquals(16, Bitboards.count(board.getPieces(ChessGame.TeamColor.WHITE)));
+    }
+
+    @Test
+    void deserializedBoardIsIndexed() {
+        ChessBoard copy = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+
+        assertEquals(board, copy);
+        assertEquals(board.getOccupied(), copy.getOccupied());
+        assertEquals(board.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN),
+                copy.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+    }
+
+    @Test
+    void unmakeMoveRestoresBoard() {
+        ChessBoard expected = new ChessBoard();
+        expected.resetBoard();
+
+        ChessMove move = new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null);
+        int undo = board.makeMove(move);
+        assertNull(board.getPiece(new ChessPosition(1, 2)));
+
+        board.unmakeMove(move, undo);
+        assertEquals(expected, board);
+        assertEquals(expected.getOccupied(), board.getOccupied());
+    }
+
+    @Test
+    void unmakePromotionCaptureRestoresPieces() {
+        board = new ChessBoard();
+        ChessPiece pawn = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        ChessPiece rook = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        board.addPiece(new ChessPosition(7, 2), pawn);
+        board.addPiece(new ChessPosition(8, 1), rook);
+
+        ChessMove move = new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN);
+        int undo = board.makeMove(move);
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN), board.getPiece(new ChessPosition(8, 1)));
+        assertEquals(0, board.getPieces(ChessGame.TeamColor.BLACK));
+
+        board.unmakeMove(move, undo);
+        assertEquals(pawn, board.getPiece(new ChessPosition(7, 2)));
+        assertEquals(rook, board.getPiece(new ChessPosition(8, 1)));
+        assertEquals(0, board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+    }
+
+    @Test
+    void squareAttackedStopsAtFirstBlocker() {
+        board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(4, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(6, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+
+        assertTrue(board.isSquareAttacked(Bitboards.square(3, 1), ChessGame.TeamColor.BLACK));
+        assertFalse(board.isSquareAttacked(Bitboards.square(6, 1), ChessGame.TeamColor.BLACK));
+        assertTrue(board.isSquareAttacked(Bitboards.square(4, 4), ChessGame.TeamColor.BLACK));
+        assertTrue(board.isSquareAttacked(Bitboards.square(5, 2), ChessGame.TeamColor.WHITE));
+        assertFalse(board.isSquareAttacked(Bitboards.square(3, 2), ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void zobristKeyFollowsPlacement() {
+        long startKey = board.getZobristKey();
+        ChessBoard other = new ChessBoard();
+        other.resetBoard();
+
+        // Knights out and back reach the same placement by a different path
+        board.movePiece(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        board.movePiece(new ChessMove(new ChessPosition(3, 3), new ChessPosition(1, 2), null));
+        assertEquals(startKey, board.getZobristKey());
+        assertEquals(other.hashCode(), board.hashCode());
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        int undo = board.makeMove(move);
+        assertNotEquals(startKey, board.getZobristKey());
+        board.unmakeMove(move, undo);
+        assertEquals(startKey, board.getZobristKey());
+
+        ChessBoard copy = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+        assertEquals(startKey, copy.getZobristKey());
+    }
+
+    @Test
+    void positionKeyIncludesSideToMove() {
+        ChessGame game = new ChessGame();
+        long whiteToMove = game.getPositionKey();
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        assertNotEquals(whiteToMove, game.getPositionKey());
+        assertEquals(game.getBoard().getZobristKey() ^ Zobrist.BLACK_TO_MOVE, game.getPositionKey());
+    }
+
+    @Test
+    void kingSquaresAreTracked() {
+        assertEquals(Bitboards.square(1, 5), board.getKingSquare(ChessGame.TeamColor.WHITE));
+        assertEquals(new ChessPosition(8, 5), board.getKingPosition(ChessGame.TeamColor.BLACK));
+
+        ChessMove move = new ChessMove(new ChessPosition(1, 5), new ChessPosition(3, 5), null);
+        int undo = board.makeMove(move);
+        assertEquals(Bitboards.square(3, 5), board.getKingSquare(ChessGame.TeamColor.WHITE));
+        board.unmakeMove(move, undo);
+        assertEquals(Bitboards.square(1, 5), board.getKingSquare(ChessGame.TeamColor.WHITE));
+
+        board.setBoard(new ChessPiece[8][8]);
+        assertEquals(-1, board.getKingSquare(ChessGame.TeamColor.WHITE));
+        assertNull(board.getKingPosition(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void pieceCountsFollowMoves() {
+        assertEquals(8, board.getPieceCount(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        assertEquals(16, board.getPieceCount(ChessGame.TeamColor.BLACK));
+
+        board.movePiece(new ChessMove(new ChessPosition(1, 4), new ChessPosition(7, 4), null));
+
+        assertEquals(7, board.getPieceCount(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        assertEquals(15, board.getPieceCount(ChessGame.TeamColor.BLACK));
+        assertEquals(1, board.getPieceCount(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+    }
+}
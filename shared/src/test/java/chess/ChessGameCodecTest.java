@@ -0,0 +1,148 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessGameCodecTest {
+
+    @Test
+    void startingGameRoundTrip() {
+        ChessGame game = new ChessGame();
+        byte[] bytes = ChessGameCodec.toBytes(game);
+
+        assertEquals(32, bytes.length);
+        assertEquals(ChessGameCodec.VERSION, bytes[0]);
+        assertEquals(game.toFen(), ChessGameCodec.fromBytes(bytes).toFen());
+    }
+
+    @Test
+    void keepsTurnFlagsAndClocks() {
+        ChessGame game = ChessGame.fromFen("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 12 40");
+        game.setGameOver(true);
+        game.setResigned(true);
+
+        ChessGame copy = ChessGameCodec.fromBase64(ChessGameCodec.toBase64(game));
+
+        assertEquals(game.getBoard(), copy.getBoard());
+        assertEquals(ChessGame.TeamColor.BLACK, copy.getTeamTurn());
+        assertTrue(copy.isGameOver());
+        assertTrue(copy.isResigned());
+        assertEquals(12, copy.getHalfmoveClock());
+        assertEquals(40, copy.getFullmoveNumber());
+    }
+
+    @Test
+    void oddPieceCountAndEmptyBoard() {
+        ChessGame game = ChessGame.fromFen("8/8/8/4k3/8/8/8/K6R w");
+        assertEquals(game.toFen(), ChessGameCodec.fromBytes(ChessGameCodec.toBytes(game)).toFen());
+
+        ChessGame empty = ChessGame.fromFen("8/8/8/8/8/8/8/8 w");
+        assertEquals(16, ChessGameCodec.toBytes(empty).length);
+        assertEquals(empty.toFen(), ChessGameCodec.fromBytes(ChessGameCodec.toBytes(empty)).toFen());
+    }
+
+    @Test
+    void keepsHistoryForUndoAndRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        // Knights out and back twice, stopping one move short of the third repetition
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+            if (i == 0) {
+                game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+            }
+        }
+
+        byte[] bytes = ChessGameCodec.toBytes(game);
+        assertEquals(32 + 6 * 7, bytes.length);
+        ChessGame copy = ChessGameCodec.fromBytes(bytes);
+        assertEquals(7, copy.getHistory().ply());
+        assertFalse(copy.isThreefoldRepetition());
+
+        copy.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+        assertTrue(copy.isThreefoldRepetition());
+
+        ChessGame undone = ChessGameCodec.fromBytes(bytes);
+        undone.undo();
+        assertEquals(6, undone.getHistory().ply());
+        assertEquals(ChessGame.TeamColor.WHITE, undone.getTeamTurn());
+        assertNotNull(undone.getBoard().getPiece(new ChessPosition(3, 6)));
+    }
+
+    @Test
+    void readsVersionOne() {
+        ChessGame game = ChessGame.fromFen("8/8/8/4k3/8/8/8/K6R b - - 3 20");
+        byte[] current = ChessGameCodec.toBytes(game);
+        // Version 1 is the same layout without the trailing move count
+        byte[] versionOne = Arrays.copyOf(current, current.length - 2);
+        versionOne[0] = 1;
+
+        ChessGame copy = ChessGameCodec.fromBytes(versionOne);
+
+        assertEquals(game.toFen(), copy.toFen());
+        assertEquals(0, copy.getHistory().ply());
+    }
+
+    @Test
+    void rejectsClocksBeyondShortRange() {
+        ChessGame largest = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 65535 65535");
+        ChessGame copy = ChessGameCodec.fromBytes(ChessGameCodec.toBytes(largest));
+        assertEquals(65535, copy.getHalfmoveClock());
+        assertEquals(65535, copy.getFullmoveNumber());
+
+        assertThrows(UncheckedIOException.class,
+                () -> ChessGameCodec.toBytes(ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 70000")));
+        assertThrows(UncheckedIOException.class,
+                () -> ChessGameCodec.toBytes(ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 65536 1")));
+    }
+
+    @Test
+    void rejectsBadInput() {
+        byte[] bytes = ChessGameCodec.toBytes(new ChessGame());
+
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[0] = 99;
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.fromBytes(wrongVersion));
+
+        byte[] truncated = Arrays.copyOf(bytes, 20);
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.fromBytes(truncated));
+
+        byte[] badPiece = bytes.clone();
+        badPiece[14] = (byte) 0xF0;
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.fromBytes(badPiece));
+    }
+
+    @Test
+    void rejectsCorruptedHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        byte[] bytes = ChessGameCodec.toBytes(game);
+        // One move after the 32-byte board: a short move at 32, then an int undo at 34
+        assertEquals(38, bytes.length);
+
+        byte[] badUndo = bytes.clone();
+        badUndo[37] = (byte) 0xFF;
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.fromBytes(badUndo));
+
+        byte[] movedFromOccupied = bytes.clone();
+        movedFromOccupied[33] = (byte) Bitboards.square(new ChessPosition(2, 4));
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.fromBytes(movedFromOccupied));
+
+        byte[] wrongSide = bytes.clone();
+        wrongSide[37] = (byte) (Bitboards.pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN) + 1);
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.fromBytes(wrongSide));
+
+        byte[] badPromotion = bytes.clone();
+        badPromotion[32] |= 0x70;
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.fromBytes(badPromotion));
+
+        byte[] extraMove = Arrays.copyOf(bytes, bytes.length + 6);
+        extraMove[31] = 2;
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.fromBytes(extraMove));
+    }
+}
@@ -0,0 +1,238 @@
+package chess;
+
+import json.Serializer;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessGameTest {
+
+    @Test
+    void evaluateStatusOfSideToMove() {
+        assertEquals(ChessGame.GameStatus.NORMAL, new ChessGame().evaluateStatus());
+        assertEquals(ChessGame.GameStatus.CHECK, ChessGame.fromFen("4k3/8/8/8/8/8/8/4RK2 b").evaluateStatus());
+        assertEquals(ChessGame.GameStatus.CHECKMATE, ChessGame.fromFen("R3k3/8/4K3/8/8/8/8/8 b").evaluateStatus());
+        assertEquals(ChessGame.GameStatus.STALEMATE, ChessGame.fromFen("k7/2Q5/8/8/8/8/8/K7 b").evaluateStatus());
+    }
+
+    @Test
+    void evaluateStatusAgreesWithStatusQueries() {
+        ChessGame game = ChessGame.fromFen("R3k3/8/4K3/8/8/8/8/8 b");
+
+        assertTrue(game.isInCheck(ChessGame.TeamColor.BLACK));
+        assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        assertFalse(game.isInStalemate(ChessGame.TeamColor.BLACK));
+        assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void fenRoundTrip() {
+        String start = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+        assertEquals(start, new ChessGame().toFen());
+        assertEquals(new ChessGame().getBoard(), ChessGame.fromFen(start).getBoard());
+
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b - - 7 23";
+        ChessGame game = ChessGame.fromFen(fen);
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals(7, game.getHalfmoveClock());
+        assertEquals(23, game.getFullmoveNumber());
+        assertEquals(fen, game.toFen());
+    }
+
+    @Test
+    void fenIgnoresCastlingAndEnPassant() {
+        ChessGame game = ChessGame.fromFen("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3");
+
+        assertEquals("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w - - 0 3", game.toFen());
+    }
+
+    @Test
+    void malformedFenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("9/8/8/8/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("7x/8/8/8/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 x"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w - - a 1"));
+    }
+
+    @Test
+    void makeMoveKeepsClocks() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+
+        game.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        assertEquals(1, game.getHalfmoveClock());
+        assertEquals(1, game.getFullmoveNumber());
+
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        assertEquals(0, game.getHalfmoveClock());
+        assertEquals(2, game.getFullmoveNumber());
+    }
+
+    @Test
+    void undoRestoresPositionAndClocks() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3p4/4P3/8/8/4K3 w - - 5 10");
+        String before = game.toFen();
+
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 5), new ChessPosition(7, 5), null));
+        assertEquals("8/4k3/8/3P4/8/8/8/4K3 w - - 1 11", game.toFen());
+
+        game.undo();
+        game.undo();
+
+        assertEquals(before, game.toFen());
+        assertEquals(0, game.getHistory().ply());
+        assertThrows(InvalidMoveException.class, game::undo);
+    }
+
+    @Test
+    void replayMovesForwardAndBack() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        List<ChessMove> moves = List.of(
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null),
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        List<String> positions = new ArrayList<>(List.of(game.toFen()));
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+            positions.add(game.toFen());
+        }
+
+        game.replayTo(1);
+        assertEquals(positions.get(1), game.toFen());
+        assertEquals(3, game.getHistory().length());
+        game.replayTo(3);
+        assertEquals(positions.get(3), game.toFen());
+        assertThrows(IllegalArgumentException.class, () -> game.replayTo(4));
+
+        List<ChessMove> played = new ArrayList<>();
+        game.getHistory().forEach(played::add);
+        assertEquals(moves, played);
+
+        game.replayTo(2);
+        game.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        assertEquals(3, game.getHistory().length());
+        assertEquals(Bitboards.square(1, 2), PackedMove.from(game.getHistory().getMove(2)));
+    }
+
+    @Test
+    void historySurvivesJson() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3p4/4P3/8/8/4K3 w - - 5 10");
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+
+        ChessGame copy = Serializer.gson().fromJson(Serializer.gson().toJson(game), ChessGame.class);
+        copy.undo();
+
+        assertEquals("4k3/8/8/3p4/4P3/8/8/4K3 w - - 5 10", copy.toFen());
+    }
+
+    @Test
+    void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)};
+
+        for (ChessMove move : shuffle) {
+            game.makeMove(move);
+        }
+        assertFalse(game.isThreefoldRepetition());
+
+        for (ChessMove move : shuffle) {
+            game.makeMove(move);
+        }
+        assertTrue(game.isThreefoldRepetition());
+        assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.evaluateStatus());
+
+        game.undo();
+        assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    void irreversibleMoveEndsRepetitionScan() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 1), new ChessPosition(3, 1), null));
+
+        assertEquals(0, game.getHalfmoveClock());
+        assertEquals(1, game.getHistory().repetitions(game.getPositionKey(), game.getHalfmoveClock()));
+    }
+
+    @Test
+    void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 80");
+        assertFalse(game.isFiftyMoveRule());
+
+        game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(2, 1), null));
+
+        assertTrue(game.isFiftyMoveRule());
+        assertEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, game.evaluateStatus());
+    }
+
+    @Test
+    void checkmateTakesPrecedenceOverFiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/R7/4K3/8/8/8/8/8 w - - 99 80");
+
+        game.makeMove(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), null));
+
+        assertEquals(ChessGame.GameStatus.CHECKMATE, game.evaluateStatus());
+    }
+
+    @Test
+    void repetitionSurvivesJson() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+            game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+        }
+
+        ChessGame copy = Serializer.gson().fromJson(Serializer.gson().toJson(game), ChessGame.class);
+
+        assertTrue(copy.isThreefoldRepetition());
+    }
+
+    @Test
+    void restoredHistoryFindsRepetitionsBeforeIrreversibleMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+            game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+        }
+        // A pawn move resets the clock, so the loaded game only needs keys after it at first
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+
+        ChessGame copy = Serializer.gson().fromJson(Serializer.gson().toJson(game), ChessGame.class);
+        assertFalse(copy.isThreefoldRepetition());
+
+        copy.replayTo(8);
+        assertTrue(copy.isThreefoldRepetition());
+        copy.replayTo(10);
+        assertFalse(copy.isThreefoldRepetition());
+        copy.replayTo(4);
+        assertEquals(2, copy.getHistory().repetitions(copy.getPositionKey(), copy.getHalfmoveClock()));
+    }
+
+    @Test
+    void insufficientMaterial() {
+        assertTrue(ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w").isInsufficientMaterial());
+        assertTrue(ChessGame.fromFen("4k3/8/8/8/8/8/8/4KN2 w").isInsufficientMaterial());
+        assertTrue(ChessGame.fromFen("4kb2/8/8/8/8/8/8/2B1K3 w").isInsufficientMaterial());
+        assertFalse(ChessGame.fromFen("4k1b1/8/8/8/8/8/8/2B1K3 w").isInsufficientMaterial());
+        assertFalse(ChessGame.fromFen("4k3/8/8/8/8/8/8/3NKN2 w").isInsufficientMaterial());
+        assertFalse(ChessGame.fromFen("4k3/8/8/8/8/8/4P3/4K3 w").isInsufficientMaterial());
+        assertFalse(new ChessGame().isInsufficientMaterial());
+
+        assertEquals(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, ChessGame.fromFen("4k3/8/8/8/8/8/8/4KB2 b").evaluateStatus());
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegalMoveCacheTest {
+
+    @Test
+    void countsHitsAndMisses() {
+        LegalMoveCache cache = new LegalMoveCache(8);
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        LegalMoveCache.Entry first = cache.lookup(board, ChessGame.TeamColor.WHITE);
+        LegalMoveCache.Entry second = cache.lookup(board, ChessGame.TeamColor.WHITE);
+        cache.lookup(board, ChessGame.TeamColor.BLACK);
+
+        assertSame(first, second);
+        assertEquals(20, first.moves().length);
+        assertEquals(ChessGame.GameStatus.NORMAL, first.status());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        LegalMoveCache cache = new LegalMoveCache(2);
+        ChessBoard start = new ChessBoard();
+        start.resetBoard();
+        ChessBoard opened = new ChessBoard();
+        opened.resetBoard();
+        opened.movePiece(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        cache.lookup(start, ChessGame.TeamColor.WHITE);
+        cache.lookup(opened, ChessGame.TeamColor.BLACK);
+        cache.lookup(start, ChessGame.TeamColor.WHITE);
+        cache.lookup(start, ChessGame.TeamColor.BLACK);
+        cache.lookup(opened, ChessGame.TeamColor.BLACK);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    void gameQueriesShareEntries() {
+        LegalMoveCache cache = LegalMoveCache.shared();
+        ChessGame game = ChessGame.fromFen("R3k3/8/4K3/8/8/8/8/8 b");
+        long hits = cache.getHits();
+
+        assertTrue(game.validMoves(new ChessPosition(8, 5)).isEmpty());
+        assertEquals(ChessGame.GameStatus.CHECKMATE, game.evaluateStatus());
+        assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+
+        assertTrue(cache.getHits() >= hits + 2);
+    }
+
+    @Test
+    void statusMissIsNotStored() {
+        LegalMoveCache cache = new LegalMoveCache(8);
+        ChessBoard mated = ChessGame.fromFen("R3k3/8/4K3/8/8/8/8/8 b").getBoard();
+        ChessBoard stalemated = ChessGame.fromFen("k7/2Q5/8/8/8/8/8/K7 b").getBoard();
+        ChessBoard checked = ChessGame.fromFen("4k3/8/8/8/8/8/8/4R1K1 b").getBoard();
+        ChessBoard start = new ChessBoard();
+        start.resetBoard();
+
+        assertEquals(ChessGame.GameStatus.CHECKMATE, cache.status(mated, ChessGame.TeamColor.BLACK));
+        assertEquals(ChessGame.GameStatus.STALEMATE, cache.status(stalemated, ChessGame.TeamColor.BLACK));
+        assertEquals(ChessGame.GameStatus.NORMAL, cache.status(start, ChessGame.TeamColor.WHITE));
+        assertEquals(ChessGame.GameStatus.CHECK, cache.status(checked, ChessGame.TeamColor.BLACK));
+        assertEquals(0, cache.size());
+        assertEquals(4, cache.getMisses());
+
+        cache.lookup(start, ChessGame.TeamColor.WHITE);
+        assertEquals(ChessGame.GameStatus.NORMAL, cache.status(start, ChessGame.TeamColor.WHITE));
+        assertEquals(1, cache.getHits());
+    }
+}
@@ -0,0 +1,107 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static passoff.chess.TestUtilities.loadBoard;
+
+class LegalMoveGeneratorTest {
+
+    @Test
+    void pinnedPieceMovesAlongPin() {
+        ChessBoard board = loadBoard("""
+                | | | | |r| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |R| | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+
+        var moves = movesFrom(new LegalMoveGenerator(board, ChessGame.TeamColor.WHITE), new ChessPosition(3, 5));
+
+        Set<ChessMove> expected = new HashSet<>();
+        for (int row : new int[]{2, 4, 5, 6, 7, 8}) {
+            expected.add(new ChessMove(new ChessPosition(3, 5), new ChessPosition(row, 5), null));
+        }
+        assertEquals(expected, new HashSet<>(moves));
+    }
+
+    @Test
+    void doubleCheckOnlyAllowsKingMoves() {
+        ChessBoard board = loadBoard("""
+                | | | | |r| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |Q| | | |b|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+
+        var generator = new LegalMoveGenerator(board, ChessGame.TeamColor.WHITE);
+
+        assertTrue(generator.inCheck());
+        assertTrue(movesFrom(generator, new ChessPosition(4, 4)).isEmpty());
+        assertFalse(movesFrom(generator, new ChessPosition(1, 5)).isEmpty());
+    }
+
+    @Test
+    void kingCannotRetreatAlongCheckingRay() {
+        ChessBoard board = loadBoard("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |r| | | | |K| | |
+                """);
+
+        var moves = movesFrom(new LegalMoveGenerator(board, ChessGame.TeamColor.WHITE), new ChessPosition(1, 6));
+
+        assertFalse(moves.contains(new ChessMove(new ChessPosition(1, 6), new ChessPosition(1, 7), null)));
+        assertTrue(moves.contains(new ChessMove(new ChessPosition(1, 6), new ChessPosition(2, 7), null)));
+    }
+
+    @Test
+    void noLegalMovesInCheckmate() {
+        ChessBoard board = loadBoard("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |q|q| |
+                | | | | | | | |K|
+                """);
+
+        assertFalse(new LegalMoveGenerator(board, ChessGame.TeamColor.WHITE).hasLegalMove());
+    }
+
+    @Test
+    void generateAllMovesFromStart() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        MoveList moves = new MoveList();
+
+        new LegalMoveGenerator(board, ChessGame.TeamColor.BLACK).generate(moves);
+
+        assertEquals(20, moves.size());
+    }
+
+    private static Collection<ChessMove> movesFrom(LegalMoveGenerator generator, ChessPosition position) {
+        MoveList moves = new MoveList();
+        generator.generateFrom(Bitboards.square(position), moves);
+        return moves.toChessMoves();
+    }
+}
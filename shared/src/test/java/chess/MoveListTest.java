@@ -0,0 +1,38 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveListTest {
+
+    @Test
+    void packedMoveRoundTrip() {
+        ChessMove move = new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 3), ChessPiece.PieceType.KNIGHT);
+        int packed = PackedMove.encode(move);
+
+        assertEquals(Bitboards.square(7, 2), PackedMove.from(packed));
+        assertEquals(Bitboards.square(8, 3), PackedMove.to(packed));
+        assertEquals(ChessPiece.PieceType.KNIGHT, PackedMove.promotion(packed));
+        assertEquals(move, PackedMove.toChessMove(packed));
+        assertNull(PackedMove.promotion(PackedMove.encode(0, 63)));
+    }
+
+    @Test
+    void addTargetsExpandsPromotions() {
+        MoveList moves = new MoveList(1);
+        long targets = Bitboards.bit(Bitboards.square(8, 1)) | Bitboards.bit(Bitboards.square(6, 1));
+
+        moves.addTargets(Bitboards.square(7, 1), targets, Bitboards.ROW_8);
+
+        assertEquals(5, moves.size());
+        assertTrue(moves.toChessMoves().contains(
+                new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.ROOK)));
+
+        moves.clear();
+        assertTrue(moves.isEmpty());
+        assertEquals(List.of(), List.copyOf(moves.toChessMoves()));
+    }
+}
@@ -0,0 +1,64 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveSinkTest {
+
+    @Test
+    void forEachLegalMoveMatchesGenerate() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w");
+        MoveList generated = new MoveList();
+        new LegalMoveGenerator(game.getBoard(), ChessGame.TeamColor.WHITE).generate(generated);
+
+        List<Integer> visited = new ArrayList<>();
+        assertTrue(game.forEachLegalMove(move -> visited.add(move)));
+
+        assertEquals(generated.size(), visited.size());
+        for (int i = 0; i < generated.size(); i++) {
+            assertEquals(generated.get(i), visited.get(i));
+        }
+    }
+
+    @Test
+    void sinkStopsEnumeration() {
+        ChessGame game = new ChessGame();
+        int[] calls = new int[1];
+
+        boolean completed = game.forEachLegalMove(move -> ++calls[0] < 3);
+
+        assertFalse(completed);
+        assertEquals(3, calls[0]);
+    }
+
+    @Test
+    void stopsOnFirstMoveToSquare() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        int target = Bitboards.square(3, 3);
+        int[] found = {PackedMove.NONE};
+
+        boolean completed = Rules.pieceRule(ChessPiece.PieceType.KNIGHT).forEachMove(board, Bitboards.square(1, 2), move -> {
+            if (PackedMove.to(move) != target) {
+                return true;
+            }
+            found[0] = move;
+            return false;
+        });
+
+        assertFalse(completed);
+        assertEquals(PackedMove.encode(Bitboards.square(1, 2), target), found[0]);
+    }
+
+    @Test
+    void promotionsAreExpandedForSinks() {
+        List<Integer> moves = new ArrayList<>();
+        MoveSink.acceptTargets(moves::add, Bitboards.square(7, 1), Bitboards.bit(Bitboards.square(8, 1)), Bitboards.ROW_8);
+
+        assertEquals(4, moves.size());
+    }
+}
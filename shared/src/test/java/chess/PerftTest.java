@@ -0,0 +1,61 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+    private static final long MAX_TEST_NODES = 1_000_000;
+
+    @Test
+    void referencePositions() {
+        for (Perft.ReferencePosition reference : Perft.REFERENCE_POSITIONS) {
+            Perft perft = new Perft(ChessGame.fromFen(reference.fen()));
+            for (int depth = 1; depth <= reference.nodes().length; depth++) {
+                long expected = reference.nodes()[depth - 1];
+                if (expected > MAX_TEST_NODES) {
+                    break;
+                }
+                assertEquals(expected, perft.count(depth), reference.name() + " depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    void divideSumsToCount() {
+        Perft perft = new Perft(new ChessGame());
+        var divide = perft.divide(3);
+
+        assertEquals(20, divide.size());
+        assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(600, divide.get(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)));
+    }
+
+    @Test
+    void parallelCountMatchesSingleThreaded() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Perft.ReferencePosition reference : Perft.REFERENCE_POSITIONS) {
+                Perft perft = new Perft(ChessGame.fromFen(reference.fen()));
+                for (int depth = 1; depth <= 4 && reference.nodes()[depth - 1] <= MAX_TEST_NODES; depth++) {
+                    assertEquals(reference.nodes()[depth - 1], perft.countParallel(depth, pool), reference.name() + " depth " + depth);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void perftLeavesGameUntouched() {
+        ChessGame game = new ChessGame();
+        ChessBoard before = new ChessBoard();
+        before.resetBoard();
+
+        new Perft(game).count(3);
+
+        assertEquals(before, game.getBoard());
+    }
+}
@@ -0,0 +1,116 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSearcherTest {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w";
+
+    @Test
+    void singleThreadIsDeterministic() {
+        ChessGame game = ChessGame.fromFen(KIWIPETE);
+
+        SearchResult first = new ParallelSearcher(1, new TranspositionTable(4)).search(game, SearchLimits.depth(4));
+        SearchResult second = new ParallelSearcher(1, new TranspositionTable(4)).search(game, SearchLimits.depth(4));
+        SearchResult plain = new Searcher(new TranspositionTable(4)).search(game, SearchLimits.depth(4));
+
+        assertEquals(first.bestMove(), second.bestMove());
+        assertEquals(first.score(), second.score());
+        assertEquals(first.nodes(), second.nodes());
+        assertEquals(plain.bestMove(), first.bestMove());
+        assertEquals(plain.nodes(), first.nodes());
+    }
+
+    @Test
+    void helpersFindMateInOne() {
+        ChessGame game = ChessGame.fromFen("4k3/R7/4K3/8/8/8/8/8 w");
+
+        SearchResult result = new ParallelSearcher(4).search(game, SearchLimits.depth(4));
+
+        assertEquals(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), null), result.bestMove());
+        assertTrue(Searcher.isMateScore(result.score()));
+    }
+
+    @Test
+    void helpersAgreeOnWinningCapture() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/8/3RK3 w");
+
+        SearchResult result = new ParallelSearcher(3).search(game, SearchLimits.depth(4));
+
+        assertEquals(new ChessMove(new ChessPosition(1, 4), new ChessPosition(5, 4), null), result.bestMove());
+        assertEquals(4, result.depth());
+    }
+
+    @Test
+    void countsNodesOfEveryThread() {
+        ChessGame game = ChessGame.fromFen(KIWIPETE);
+        SearchResult single = new ParallelSearcher(1, new TranspositionTable(4)).search(game, SearchLimits.depth(4));
+
+        SearchResult parallel = new ParallelSearcher(2, new TranspositionTable(4)).search(game, SearchLimits.depth(4));
+
+        assertNotNull(parallel.bestMove());
+        // The main search alone does about as much work as a single thread, so the helpers' nodes must show
+        assertTrue(parallel.nodes() > single.nodes(),
+                "parallel " + parallel.nodes() + " nodes, single " + single.nodes());
+        assertTrue(parallel.depth() >= single.depth());
+    }
+
+    @Test
+    void stopsAtTimeLimit() {
+        ChessGame game = new ChessGame();
+        String before = game.toFen();
+
+        SearchResult result = new ParallelSearcher(4).search(game, SearchLimits.millis(100));
+
+        assertNotNull(result.bestMove());
+        assertTrue(result.elapsedNanos() < 1_000_000_000L);
+        assertEquals(before, game.toFen());
+    }
+
+    @Test
+    void rethrowsHelperFailure() {
+        ChessGame game = ChessGame.fromFen(KIWIPETE);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new ParallelSearcher(3, new HelperFailingTable(new IllegalStateException("helper")))
+                        .search(game, SearchLimits.depth(4)));
+        assertEquals("helper", exception.getMessage());
+
+        StackOverflowError error = assertThrows(StackOverflowError.class,
+                () -> new ParallelSearcher(3, new HelperFailingTable(new StackOverflowError("helper")))
+                        .search(game, SearchLimits.depth(4)));
+        assertEquals("helper", error.getMessage());
+    }
+
+    @Test
+    void rejectsNoThreads() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearcher(0));
+    }
+
+    /**
+     * Fails every probe made from a helper thread, leaving the main search alone
+     */
+    private static class HelperFailingTable extends TranspositionTable {
+        private final Throwable failure;
+
+        HelperFailingTable(Throwable failure) {
+            super(4);
+            this.failure = failure;
+        }
+
+        @Override
+        public long probe(long key) {
+            if (Thread.currentThread().getName().startsWith("search-helper-")) {
+                if (failure instanceof Error error) {
+                    throw error;
+                }
+                throw (RuntimeException) failure;
+            }
+            return super.probe(key);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearcherTest {
+    private final Searcher searcher = new Searcher();
+
+    @Test
+    void findsMateInOne() {
+        ChessGame game = ChessGame.fromFen("4k3/R7/4K3/8/8/8/8/8 w");
+
+        SearchResult result = searcher.search(game, SearchLimits.depth(4));
+
+        assertEquals(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), null), result.bestMove());
+        assertTrue(Searcher.isMateScore(result.score()));
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    void findsMateInTwo() {
+        // Two rooks ladder: Rb7 then Ra8 mate
+        ChessGame game = ChessGame.fromFen("6k1/8/8/8/8/8/R7/1R4K1 w");
+
+        SearchResult result = searcher.search(game, SearchLimits.depth(5));
+
+        assertTrue(Searcher.isMateScore(result.score()));
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    void winsHangingQueen() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/8/3RK3 w");
+
+        SearchResult result = searcher.search(game, SearchLimits.depth(3));
+
+        assertEquals(new ChessMove(new ChessPosition(1, 4), new ChessPosition(5, 4), null), result.bestMove());
+        assertTrue(result.score() > 300);
+    }
+
+    @Test
+    void noLegalMoves() {
+        SearchResult mated = searcher.search(ChessGame.fromFen("R3k3/8/4K3/8/8/8/8/8 b"), SearchLimits.depth(3));
+        SearchResult stalemated = searcher.search(ChessGame.fromFen("k7/2Q5/8/8/8/8/8/K7 b"), SearchLimits.depth(3));
+
+        assertNull(mated.bestMove());
+        assertEquals(-Searcher.MATE_SCORE, mated.score());
+        assertNull(stalemated.bestMove());
+        assertEquals(0, stalemated.score());
+    }
+
+    @Test
+    void respectsNodeBudget() {
+        ChessGame game = new ChessGame();
+
+        SearchResult result = searcher.search(game, SearchLimits.nodes(5000));
+
+        assertTrue(result.nodes() <= 5000);
+        assertNotNull(result.bestMove());
+        assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+    }
+
+    @Test
+    void respectsTimeBudget() {
+        SearchResult result = searcher.search(new ChessGame(), SearchLimits.millis(100));
+
+        assertNotNull(result.bestMove());
+        assertTrue(result.elapsedNanos() < 1_000_000_000L);
+    }
+
+    @Test
+    void searchLeavesGameUntouched() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w");
+        String before = game.toFen();
+
+        searcher.search(game, SearchLimits.depth(3));
+
+        assertEquals(before, game.toFen());
+    }
+
+    @Test
+    void reusesTableAcrossSearches() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w");
+        Searcher fresh = new Searcher(new TranspositionTable(4));
+
+        SearchResult first = fresh.search(game, SearchLimits.depth(4));
+        SearchResult second = fresh.search(game, SearchLimits.depth(4));
+
+        assertEquals(first.bestMove(), second.bestMove());
+        assertEquals(first.score(), second.score());
+        assertTrue(second.nodes() < first.nodes());
+    }
+
+    @Test
+    void mateScoresSurviveTheTable() {
+        ChessGame game = ChessGame.fromFen("6k1/8/8/8/8/8/R7/1R4K1 w");
+        Searcher shared = new Searcher(new TranspositionTable(1));
+
+        int first = shared.search(game, SearchLimits.depth(5)).score();
+        int second = shared.search(game, SearchLimits.depth(5)).score();
+
+        assertEquals(first, second);
+        assertTrue(Searcher.isMateScore(second));
+    }
+}
@@ -0,0 +1,113 @@
+package chess.engine;
+
+import chess.PackedMove;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+    private static final int MOVE = PackedMove.encode(12, 28);
+
+    @Test
+    void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x9D39247E33776D41L;
+
+        table.store(key, MOVE, -1234, 7, TranspositionTable.BOUND_LOWER);
+        long entry = table.probe(key);
+
+        assertEquals(MOVE, TranspositionTable.move(entry));
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.bound(entry));
+        assertEquals(0L, table.probe(key + 1));
+    }
+
+    @Test
+    void sizeInMegabytes() {
+        assertEquals(1 << 16, new TranspositionTable(1).capacity());
+        assertEquals(1 << 17, new TranspositionTable(3).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(TranspositionTable.MAX_MEGABYTES + 1));
+    }
+
+    @Test
+    void keepsMoveWhenStoringWithoutOne() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42L;
+
+        table.store(key, MOVE, 10, 3, TranspositionTable.BOUND_EXACT);
+        table.store(key, PackedMove.NONE, -50, 5, TranspositionTable.BOUND_UPPER);
+        long entry = table.probe(key);
+
+        assertEquals(MOVE, TranspositionTable.move(entry));
+        assertEquals(-50, TranspositionTable.score(entry));
+        assertEquals(5, TranspositionTable.depth(entry));
+    }
+
+    @Test
+    void replacesShallowestThenOldest() {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = table.capacity() / 2;
+        // Three keys mapping to the same bucket of two entries
+        long deep = 5L;
+        long shallow = 5L + buckets;
+        long newcomer = 5L + 2 * buckets;
+
+        table.store(deep, MOVE, 1, 10, TranspositionTable.BOUND_EXACT);
+        table.store(shallow, MOVE, 2, 2, TranspositionTable.BOUND_EXACT);
+        table.store(newcomer, MOVE, 3, 1, TranspositionTable.BOUND_EXACT);
+        assertNotEquals(0L, table.probe(deep));
+        assertEquals(0L, table.probe(shallow));
+        assertNotEquals(0L, table.probe(newcomer));
+
+        // Old deep entries give way once they are several searches old
+        for (int i = 0; i < 3; i++) {
+            table.newSearch();
+        }
+        table.store(shallow, MOVE, 2, 2, TranspositionTable.BOUND_EXACT);
+        table.store(newcomer + buckets, MOVE, 4, 1, TranspositionTable.BOUND_EXACT);
+        assertEquals(0L, table.probe(deep));
+    }
+
+    @Test
+    void clearEmptiesTable() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(7L, MOVE, 100, 4, TranspositionTable.BOUND_EXACT);
+        long other = 7L + table.capacity() / 2;
+
+        table.clear();
+        assertEquals(0L, table.probe(7L));
+        assertEquals(0L, table.probe(other));
+        assertEquals(0, table.hashfull());
+    }
+
+    @Test
+    void sharedAcrossThreads() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        int writers = 4;
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[writers];
+        for (int t = 0; t < writers; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = (i & 1023) * 0x9E3779B97F4A7C15L;
+                    // Every writer stores the same data for a key, derived from the key
+                    table.store(key, MOVE, (int) (key >>> 52), id + 1, TranspositionTable.BOUND_EXACT);
+                    long entry = table.probe(key);
+                    if (entry != 0 && TranspositionTable.score(entry) != (int) (key >>> 52)) {
+                        failure.compareAndSet(null, "Mismatched entry for key " + key);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+    }
+}